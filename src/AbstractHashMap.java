@@ -5,6 +5,7 @@ import java.util.Random;
 public abstract class AbstractHashMap<K,V> extends AbstractMap<K,V> {
     protected int n = 0;        // number of entries
     protected int capacity;     // length of the table
+    protected int modCount = 0; // number of insertions and removals, so iterators can detect them
     private int prime;          // prime factor
     private long scale, shift;   // the shift and scaling factors
 
@@ -56,7 +57,12 @@ public abstract class AbstractHashMap<K,V> extends AbstractMap<K,V> {
      * @return the value stored at the removed key
      */
     @Override
-    public V remove(K key) { return bucketRemove(hashValue(key), key); }
+    public V remove(K key) {
+        int before = n;
+        V answer = bucketRemove(hashValue(key), key);
+        if (n != before) modCount++;
+        return answer;
+    }
 
     /**
      * Stores a new key/value pair in the map
@@ -66,7 +72,9 @@ public abstract class AbstractHashMap<K,V> extends AbstractMap<K,V> {
      */
     @Override
     public V put(K key, V value) {
+        int before = n;
         V answer = bucketPut(hashValue(key), key, value);
+        if (n != before) modCount++;
         if(n > capacity / 2) resize(2 * capacity - 1);
         return answer;
     }
@@ -76,13 +84,13 @@ public abstract class AbstractHashMap<K,V> extends AbstractMap<K,V> {
      * @param key a key in the map
      * @return the calculated hash value
      */
-    private int hashValue(K key) { return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % capacity); }
+    protected int hashValue(K key) { return (int) ((Math.abs(key.hashCode() * scale + shift) % prime) % capacity); }
 
     /**
-     * Resizes the map to given capactiy
+     * Resizes the map to given capactiy; subclasses able to move entries straight into the new table should override
      * @param newCap the new capacity for the map
      */
-    private void resize(int newCap) {
+    protected void resize(int newCap) {
         ArrayList<Entry<K,V>> buffer = new ArrayList<>(n);
         for (Entry<K,V> e : entrySet()) buffer.add(e);
         capacity = newCap;
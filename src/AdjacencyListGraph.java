@@ -1,29 +1,75 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
 
 public class AdjacencyListGraph<V, E> implements Graph<V, E> {
 
 
     private final boolean isDirected;
-    private final LinkedPositionalList<Vertex<V>> vertices = new LinkedPositionalList<>();
-    private final LinkedPositionalList<Edge<E>> edges = new LinkedPositionalList<>();
+    private final PositionalList<Vertex<V>> vertices;
+    private final PositionalList<Edge<E>> edges;
+    private final Iterable<Vertex<V>> vertexView;     // what vertices() returns
+    private final Iterable<Edge<E>> edgeView;         // what edges() returns
+    // dense ids, so algorithms can keep per-vertex and per-edge state in plain arrays
+    private final SlotTable<Vertex<V>> vertexSlots = new SlotTable<>();
+    private final SlotTable<Edge<E>> edgeSlots = new SlotTable<>();
+    // secondary indexes on vertex elements, by name
+    private final Map<String, VertexIndex<V, ?>> indexes = new ProbeHashMap<>();
+    private MutationLog<V, E> log;      // records each change before it is made, once the graph is opened through a MutationLog
+
+    public AdjacencyListGraph(boolean directed) { this(directed, false); }
 
-    public AdjacencyListGraph(boolean directed) { isDirected = directed; }
+    /**
+     * Creates an empty graph
+     * @param directed true if edges have a direction
+     * @param arrayLists true to keep the vertex and edge lists in ArrayPositionalLists, which store them in
+     *                   slot arrays instead of allocating a linked node for every vertex and edge. vertices() and
+     *                   edges() then return views that scan the slots in index order and do not support remove;
+     *                   a removal frees a slot that the next insertion reuses, so after that the order is no longer
+     *                   insertion order
+     */
+    public AdjacencyListGraph(boolean directed, boolean arrayLists) {
+        isDirected = directed;
+        if (arrayLists) {
+            ArrayPositionalList<Vertex<V>> vertexList = new ArrayPositionalList<>();
+            ArrayPositionalList<Edge<E>> edgeList = new ArrayPositionalList<>();
+            vertices = vertexList;
+            edges = edgeList;
+            vertexView = vertexList.denseElements();
+            edgeView = edgeList.denseElements();
+        } else {
+            vertexView = vertices = new LinkedPositionalList<>();
+            edgeView = edges = new LinkedPositionalList<>();
+        }
+    }
 
     /** A vertex of an adjacency list graph representation */
     private class InnerVertex<V> implements Vertex<V> {
         private final V element;
 
-        private int dfsNum = Integer.MAX_VALUE, low = Integer.MAX_VALUE;
+        private int id;
         private Position<Vertex<V>> pos;
         //private LinkedPositionalList<Edge<E>> outgoing, incoming;
         private final ArrayList<Edge<E>> outgoing, incoming;
+        // neighbor -> edge index mirroring the incidence lists, used for constant time edge lookup
+        private final Map<Vertex<V>, Edge<E>> outgoingByNeighbor, incomingByNeighbor;
 
         /** Constructs a new InnerVertex instance storing given element */
         public InnerVertex(V elem, boolean graphIsDirected) {
             element = elem;
             outgoing = new ArrayList<>();
-            if(graphIsDirected) incoming = new ArrayList<>();
-            else incoming = outgoing;
+            outgoingByNeighbor = new IdentityMap<>();
+            if(graphIsDirected) {
+                incoming = new ArrayList<>();
+                incomingByNeighbor = new IdentityMap<>();
+            } else {
+                incoming = outgoing;
+                incomingByNeighbor = outgoingByNeighbor;
+            }
         }
 
         /**
@@ -39,20 +85,11 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
          */
         public V getElement() { return element; }
 
-        /**
-         * returns the DFS number associated with the vertex after DFS performed,
-         * MAX_VALUE until DFS performed
-         */
-        public int getDfsNum() { return dfsNum; }
-
-        /** Sets DFS num (for use during DFS search) */
-        public void setDfsNum(int dfsNum) { this.dfsNum = dfsNum; }
+        /** Returns the dense id of this vertex */
+        public int getId() { return id; }
 
-        /** returns the low value calculated when finding connectors, MAX_VALUE by default */
-        public int getLow() { return low; }
-
-        /** Sets low value, for use when finding connectors */
-        public void setLow(int low) { this.low = low; }
+        /** Sets the dense id of this vertex */
+        public void setId(int id) { this.id = id; }
 
         /** Stores the position of this vertex within the graph's vertex list */
         public void setPosition(Position<Vertex<V>> p) { pos = p; }
@@ -66,13 +103,22 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
         /** Returns reference to the underlying list of incoming edges */
         public ArrayList<Edge<E>> getIncoming() { return incoming; }
 
+        /** Returns map from each outgoing neighbor to the edge leading to it */
+        public Map<Vertex<V>, Edge<E>> getOutgoingByNeighbor() { return outgoingByNeighbor; }
+
+        /** Returns map from each incoming neighbor to the edge arriving from it */
+        public Map<Vertex<V>, Edge<E>> getIncomingByNeighbor() { return incomingByNeighbor; }
+
     }
 
     /** An edge between two vertices */
     private class InnerEdge<E> implements Edge<E> {
         private final E element;
+        private int id;
         private Position<Edge<E>> pos;
         private final Vertex<V>[] endpoints;
+        // index of this edge in the origin's outgoing list and in the destination's incoming list
+        private final int[] slots = new int[2];
 
         /** Constructs InnerEdge instance from u to v, storing given element */
         public InnerEdge(Vertex<V> u, Vertex<V> v, E elem) {
@@ -88,6 +134,18 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
         /** Returns reference to endpoint array */
         public Vertex<V>[] getEndpoints() { return endpoints; }
 
+        /** Returns index of this edge in the origin's outgoing list (end 0) or the destination's incoming list (end 1) */
+        public int getSlot(int end) { return slots[end]; }
+
+        /** Records index of this edge in the incidence list of the given end */
+        public void setSlot(int end, int index) { slots[end] = index; }
+
+        /** Returns the dense id of this edge */
+        public int getId() { return id; }
+
+        /** Sets the dense id of this edge */
+        public void setId(int id) { this.id = id; }
+
         /** Stores position of this edge within graph's Vertex list */
         public void setPosition(Position<Edge<E>> p) { pos = p; }
 
@@ -95,6 +153,9 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
         public Position<Edge<E>> getPosition() { return pos; }
     }
 
+    /** @return true if the graph is directed */
+    public boolean isDirected() { return isDirected; }
+
     /**
      * Returns the number of vertices in the graph
      * @return number of vertices in graph
@@ -102,29 +163,62 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
     public int numVertices() { return vertices.size(); }
 
     /** @return an iterable collection of all vertices stored in graph */
-    public Iterable<Vertex<V>> vertices() { return vertices; }
+    public Iterable<Vertex<V>> vertices() { return vertexView; }
 
     /** @return the number of edges in the graph */
     public int numEdges() { return edges.size(); }
 
     /** @return an iterable collection of all edges stored in graph */
-    public Iterable<Edge<E>> edges() { return edges; }
+    public Iterable<Edge<E>> edges() { return edgeView; }
+
+    /**
+     * Returns the dense id of a given Vertex
+     * @param v a Vertex in the Graph
+     * @return the id of v, between 0 and vertexIdBound() - 1
+     * @throws IllegalArgumentException if v does not exist in graph
+     */
+    public int vertexId(Vertex<V> v) throws IllegalArgumentException { return validate(v).getId(); }
+
+    /**
+     * Returns the Vertex with a given id
+     * @param id a vertex id
+     * @return the Vertex with that id, or null if no vertex currently uses it
+     */
+    public Vertex<V> vertexAt(int id) { return vertexSlots.get(id); }
+
+    /** @return one more than the largest vertex id in use */
+    public int vertexIdBound() { return vertexSlots.bound(); }
 
     /**
-     * Returns the edge found between given vertices u and v
+     * Returns the dense id of a given Edge
+     * @param e an Edge in the Graph
+     * @return the id of e, between 0 and edgeIdBound() - 1
+     * @throws IllegalArgumentException if e does not exist in graph
+     */
+    public int edgeId(Edge<E> e) throws IllegalArgumentException { return validate(e).getId(); }
+
+    /**
+     * Returns the Edge with a given id
+     * @param id an edge id
+     * @return the Edge with that id, or null if no edge currently uses it
+     */
+    public Edge<E> edgeAt(int id) { return edgeSlots.get(id); }
+
+    /** @return one more than the largest edge id in use */
+    public int edgeIdBound() { return edgeSlots.bound(); }
+
+    /**
+     * Returns the edge found between given vertices u and v in expected constant time.
+     * For a directed graph only an edge from u to v is reported.
      * @param u a Vertex in the Graph
      * @param v a Vertex in the Graph
      * @return the edge found between the 2 vertices, or null if none exists
      * @throws IllegalArgumentException if either Vertex is not found in graph
      */
     public Edge<E> getEdge(Vertex<V> u, Vertex<V> v) throws IllegalArgumentException {
-        Vertex[] endpoints = {u,v};
-        for(Edge<E> edge : edges) {
-            Vertex[] currentEndpoints = ((InnerEdge<E>) edge).endpoints;
-            if(currentEndpoints[0] == endpoints[0] && currentEndpoints[1] == endpoints[1]) return edge;
-            if(currentEndpoints[0] == endpoints[1] && currentEndpoints[1] == endpoints[0]) return edge;
-        }
-        return null;
+        InnerVertex<V> origin = validate(u);
+        validate(v);
+        return origin.getOutgoingByNeighbor().get(v);
     }
 
     /**
@@ -134,7 +228,8 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
      * @throws IllegalArgumentException if Edge does not exist in graph
      */
     public Vertex<V>[] endVertices(Edge<E> e) throws IllegalArgumentException {
-        return new Vertex[0];
+        InnerEdge<E> edge = validate(e);
+        return edge.getEndpoints().clone();
     }
 
     /**
@@ -205,6 +300,41 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
         return vert.getOutgoing();
     }
 
+    /**
+     * Returns the edges whose origin is a given Vertex, each exactly once.
+     * Unlike the outgoing list of an undirected graph this leaves out edges for which v is the destination,
+     * and lists a self-loop once rather than twice.
+     * @param v a Vertex in the graph
+     * @return an iterable collection of the edges originating at v
+     * @throws IllegalArgumentException if v does not exist in graph
+     */
+    Iterable<Edge<E>> originEdges(Vertex<V> v) throws IllegalArgumentException {
+        InnerVertex<V> vert = validate(v);
+        ArrayList<Edge<E>> list = vert.getOutgoing();
+        return () -> new Iterator<Edge<E>>() {
+            private int j = skip(0);
+
+            /** @return first index at or after from holding the origin's entry of its edge */
+            private int skip(int from) {
+                while (from < list.size()) {
+                    InnerEdge<E> e = (InnerEdge<E>) list.get(from);
+                    if (e.getEndpoints()[0] == vert && e.getSlot(0) == from) break;
+                    from++;
+                }
+                return from;
+            }
+
+            public boolean hasNext() { return j < list.size(); }
+
+            public Edge<E> next() {
+                if (j >= list.size()) throw new NoSuchElementException("nothing left");
+                Edge<E> answer = list.get(j);
+                j = skip(j + 1);
+                return answer;
+            }
+        };
+    }
+
     /**
      * Returns given Vertex's incoming edge list
      * @param v a Vertex in the graph
@@ -222,11 +352,44 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
      * @return the newly created Vertex
      */
     public Vertex<V> insertVertex(V element) {
+        if (log != null) log.insertingVertex(vertexSlots.nextId(), element);
+        InnerVertex<V> v = new InnerVertex<>(element, isDirected);
+        v.setPosition(vertices.addLast(v));
+        v.setId(vertexSlots.add(v));
+        for (VertexIndex<V, ?> index : indexes.values()) index.add(v);
+        return v;
+    }
+
+    /**
+     * Inserts a new Vertex with a given unused id, for rebuilding a saved graph.
+     * restoreFreeVertexIds must be called once every saved vertex has been inserted.
+     * @param element the new element to be inserted into the Graph
+     * @param id the id the new vertex must have
+     * @return the newly created Vertex
+     * @throws IllegalArgumentException if id is negative or already in use
+     */
+    Vertex<V> insertVertex(V element, int id) throws IllegalArgumentException {
         InnerVertex<V> v = new InnerVertex<>(element, isDirected);
+        vertexSlots.put(id, v);
         v.setPosition(vertices.addLast(v));
+        v.setId(id);
+        for (VertexIndex<V, ?> index : indexes.values()) index.add(v);
         return v;
     }
 
+    /** @return vertex ids awaiting reuse, the next one to be handed out last */
+    int[] freeVertexIds() { return vertexSlots.freeIds(); }
+
+    /**
+     * Replaces the vertex id free-list, for rebuilding a saved graph
+     * @param ids unused ids below vertexIdBound(), the next one to be handed out last
+     * @throws IllegalArgumentException if an id is in use or out of range
+     */
+    void restoreFreeVertexIds(int[] ids) throws IllegalArgumentException { vertexSlots.restoreFreeIds(ids); }
+
+    /** Sets the log to which later changes are appended, or stops logging if log is null */
+    void setMutationLog(MutationLog<V, E> log) { this.log = log; }
+
     /**
      *
      * @param u a Vertex in the Graph
@@ -237,14 +400,20 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
      */
     public Edge<E> insertEdge(Vertex<V> u, Vertex<V> v, E element) throws IllegalArgumentException {
         if(getEdge(u,v) == null) {
-            InnerEdge<E> e = new InnerEdge<>(u, v, element);
-            e.setPosition(edges.addLast(e));
             InnerVertex<V> origin = validate(u);
             InnerVertex<V> dest = validate(v);
+            if (log != null) log.insertingEdge(origin.getId(), dest.getId(), element);
+            InnerEdge<E> e = new InnerEdge<>(u, v, element);
+            e.setPosition(edges.addLast(e));
+            e.setId(edgeSlots.add(e));
             //origin.getOutgoing().addLast(e);
+            e.setSlot(0, origin.getOutgoing().size());
             origin.getOutgoing().add(e);
+            origin.getOutgoingByNeighbor().put(v, e);
             //dest.getIncoming().addLast(e);
+            e.setSlot(1, dest.getIncoming().size());
             dest.getIncoming().add(e);
+            dest.getIncomingByNeighbor().put(u, e);
             return e;
         } else throw new IllegalArgumentException("Edge from u to v already exists");
     }
@@ -256,24 +425,16 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
      */
     public void removeVertex(Vertex<V> v) throws IllegalArgumentException {
         InnerVertex<V> vert = validate(v);
-        // remove all incident edges from the graph
-        for(Edge<E> edge : vert.getOutgoing()) {
-            InnerEdge<E> e = validate(edge);
-            Vertex<V> opp = opposite(v, edge);
-            InnerVertex<V> opposing = (InnerVertex<V>)opp;
-            opposing.getIncoming().remove(e);
-            edges.remove(e.getPosition());
-        }
+        if (log != null) log.removingVertex(vert.getId());
+        // remove all incident edges from the graph in one pass over each incidence list
+        for(Edge<E> edge : vert.getOutgoing()) removeIncidentEdge(vert, (InnerEdge<E>) edge);
+        if(isDirected)
+            for(Edge<E> edge : vert.getIncoming()) removeIncidentEdge(vert, (InnerEdge<E>) edge);
         vert.getOutgoing().clear();
-        for(Edge<E> edge : vert.getIncoming()) {
-            InnerEdge<E> e = validate(edge);
-            Vertex<V> opp = opposite(v, edge);
-            InnerVertex<V> opposing = (InnerVertex<V>)opp;
-            opposing.getIncoming().remove(e);
-            edges.remove(e.getPosition());
-        }
         vert.getIncoming().clear();
+        for (VertexIndex<V, ?> index : indexes.values()) index.remove(vert);
         vertices.remove(vert.getPosition());
+        vertexSlots.remove(vert.getId());
         vert.setPosition(null);
     }
 
@@ -285,14 +446,58 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
     public void removeEdge(Edge<E> e) throws IllegalArgumentException {
         InnerEdge<E> edge = validate(e);
         Vertex<V>[] verts = edge.getEndpoints();
-        InnerVertex<V>[] innerVerts = new InnerVertex[verts.length];
-        for(int i = 0; i < verts.length; ++i) innerVerts[i] = (InnerVertex<V>) verts[i];
-        innerVerts[0].getOutgoing().remove(e);
-        innerVerts[1].getIncoming().remove(e);
+        InnerVertex<V> origin = (InnerVertex<V>) verts[0];
+        InnerVertex<V> dest = (InnerVertex<V>) verts[1];
+        if (log != null) log.removingEdge(origin.getId(), dest.getId());
+        detach(origin.getOutgoing(), edge.getSlot(0));
+        origin.getOutgoingByNeighbor().remove(verts[1]);
+        detach(dest.getIncoming(), edge.getSlot(1));     // slot re-read, the first detach may have moved it
+        dest.getIncomingByNeighbor().remove(verts[0]);
         edges.remove(edge.getPosition());
+        edgeSlots.remove(edge.getId());
         edge.setPosition(null);
     }
 
+    /**
+     * Removes the edge at index j of an incidence list in constant time by moving the list's last edge into its place
+     * @param list the outgoing or incoming list of some vertex
+     * @param j the index of the edge to be removed
+     */
+    private void detach(ArrayList<Edge<E>> list, int j) {
+        int last = list.size() - 1;
+        InnerEdge<E> moved = (InnerEdge<E>) list.remove(last);
+        if(j < last) {
+            list.set(j, moved);
+            // update whichever end of the moved edge was recorded at the old last index of this list
+            InnerVertex<V> movedOrigin = (InnerVertex<V>) moved.getEndpoints()[0];
+            if(movedOrigin.getOutgoing() == list && moved.getSlot(0) == last) moved.setSlot(0, j);
+            else moved.setSlot(1, j);
+        }
+    }
+
+    /**
+     * Removes an edge of a vertex being deleted, detaching it only from the opposite endpoint's list
+     * since the vertex's own lists are cleared afterwards
+     * @param vert the vertex being removed
+     * @param e an edge incident to vert
+     */
+    private void removeIncidentEdge(InnerVertex<V> vert, InnerEdge<E> e) {
+        if(e.getPosition() == null) return;        // self-loop, listed twice and already removed
+        Vertex<V>[] ends = e.getEndpoints();
+        if(ends[0] == vert && ends[1] != vert) {
+            InnerVertex<V> dest = (InnerVertex<V>) ends[1];
+            detach(dest.getIncoming(), e.getSlot(1));
+            dest.getIncomingByNeighbor().remove(vert);
+        } else if(ends[1] == vert && ends[0] != vert) {
+            InnerVertex<V> origin = (InnerVertex<V>) ends[0];
+            detach(origin.getOutgoing(), e.getSlot(0));
+            origin.getOutgoingByNeighbor().remove(vert);
+        }
+        edges.remove(e.getPosition());
+        edgeSlots.remove(e.getId());
+        e.setPosition(null);
+    }
+
     /**
      * Checks graph for existence of a given Vertex
      * @param v a Vertex in the Graph
@@ -327,25 +532,100 @@ public class AdjacencyListGraph<V, E> implements Graph<V, E> {
         return vertex.getOutgoing();
     }
 
-    // Methods needed to find graph connectors
+    // Secondary indexes
 
-    public void setDFS(Vertex<V> v, int DFS) throws IllegalArgumentException{
-        InnerVertex<V> inner = validate(v);
-        inner.setDfsNum(DFS);
+    /**
+     * Adds a hash index on a key derived from each vertex's element, supporting exact lookups in expected constant time.
+     * Vertices already in the graph are indexed immediately.
+     * @param name the name under which the index is looked up
+     * @param keyOf extracts the key of an element; must give the same key for as long as the vertex is in the graph
+     * @throws IllegalArgumentException if an index with that name already exists
+     */
+    public <K> void addIndex(String name, Function<V, K> keyOf) throws IllegalArgumentException {
+        addIndex(name, new VertexIndex.HashIndex<>(keyOf, this::vertexId));
     }
 
-    public int getDFS(Vertex<V> v) throws IllegalArgumentException {
-        InnerVertex<V> inner = validate(v);
-        return inner.getDfsNum();
+    /**
+     * Adds an ordered index on a String key derived from each vertex's element, supporting prefix lookups.
+     * Vertices already in the graph are indexed immediately.
+     * @param name the name under which the index is looked up
+     * @param keyOf extracts the key of an element; must give the same key for as long as the vertex is in the graph
+     * @throws IllegalArgumentException if an index with that name already exists
+     */
+    public void addPrefixIndex(String name, Function<V, String> keyOf) throws IllegalArgumentException {
+        addIndex(name, new VertexIndex.PrefixIndex<>(keyOf, this::vertexId));
+    }
+
+    private void addIndex(String name, VertexIndex<V, ?> index) throws IllegalArgumentException {
+        if (indexes.get(name) != null) throw new IllegalArgumentException("Index " + name + " already exists");
+        for (Vertex<V> v : vertices) index.add(v);
+        indexes.put(name, index);
+    }
+
+    /**
+     * Removes the index with given name
+     * @param name the name of an index
+     * @return true if there was such an index
+     */
+    public boolean dropIndex(String name) { return indexes.remove(name) != null; }
+
+    /**
+     * Returns the vertices whose key in a given index equals key
+     * @param name the name of an index
+     * @param key the key searched for
+     * @return a copy of the list of matching vertices, empty if there are none
+     * @throws IllegalArgumentException if there is no index with that name
+     */
+    public <K> List<Vertex<V>> lookup(String name, K key) throws IllegalArgumentException {
+        return ((VertexIndex<V, K>) index(name)).lookup(key);
+    }
+
+    /**
+     * Returns the vertices whose key in a given prefix index starts with prefix
+     * @param name the name of an index added by addPrefixIndex
+     * @param prefix the prefix searched for
+     * @return a list of the matching vertices in key order, empty if there are none
+     * @throws IllegalArgumentException if there is no prefix index with that name
+     */
+    public List<Vertex<V>> lookupPrefix(String name, String prefix) throws IllegalArgumentException {
+        VertexIndex<V, ?> index = index(name);
+        if (!(index instanceof VertexIndex.PrefixIndex)) throw new IllegalArgumentException("Index " + name + " does not support prefixes");
+        return ((VertexIndex.PrefixIndex<V>) index).lookupPrefix(prefix);
     }
 
-    public void setLow(Vertex<V> v, int low) throws IllegalArgumentException {
-        InnerVertex<V> inner = validate(v);
-        inner.setDfsNum(low);
+    private VertexIndex<V, ?> index(String name) throws IllegalArgumentException {
+        VertexIndex<V, ?> index = indexes.get(name);
+        if (index == null) throw new IllegalArgumentException("No index named " + name);
+        return index;
+    }
+
+    /**
+     * Builds an immutable compressed-sparse-row snapshot of the graph for read-heavy analytics.
+     * Later changes to this graph are not reflected in the snapshot.
+     * @return a read-only CSR copy of the graph
+     */
+    public CsrGraph<V, E> toCsr() { return new CsrGraph<>(this); }
+
+    /**
+     * Writes the graph to a binary snapshot file; vertex ids are preserved by load
+     * @param path the file to write, replaced if it exists
+     * @param vertexCodec writes vertex elements
+     * @param edgeCodec writes edge elements
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path, ElementCodec<V> vertexCodec, ElementCodec<E> edgeCodec) throws IOException {
+        GraphSnapshot.save(this, path, vertexCodec, edgeCodec);
     }
 
-    public int getLow(Vertex<V> v) throws IllegalArgumentException {
-        InnerVertex<V> inner = validate(v);
-        return inner.getLow();
+    /**
+     * Reads a graph written by save
+     * @param path the snapshot file
+     * @param vertexCodec reads vertex elements
+     * @param edgeCodec reads edge elements
+     * @return the graph stored in the snapshot
+     * @throws IOException if the file cannot be read, is not a snapshot, or fails its checksum
+     */
+    public static <V, E> AdjacencyListGraph<V, E> load(Path path, ElementCodec<V> vertexCodec, ElementCodec<E> edgeCodec) throws IOException {
+        return GraphSnapshot.load(path, vertexCodec, edgeCodec);
     }
 }
\ No newline at end of file
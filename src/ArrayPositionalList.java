@@ -0,0 +1,295 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Positional list whose elements and links live in parallel arrays indexed by slot, instead of in linked Node objects.
+ *
+ * Slot 0 is a sentinel that is both header and trailer: next[0] is the first slot and prev[0] the last.
+ * Removed slots go onto a free-list threaded through the next array and are handed out again by later insertions,
+ * so a list that churns keeps reusing the same storage. A Position is a small handle naming its slot index and
+ * the slot's generation, which is bumped whenever the slot is freed, so a stale handle is rejected even after its slot
+ * has been reused. Each occupied slot keeps the one handle made when it was filled, so every query for the same
+ * element returns the same Position and walking the list allocates nothing. Iteration in list order follows the
+ * int links without touching the handles, and denseElements scans the slot arrays in index order, skipping free
+ * slots, for callers that do not care about order.
+ */
+public class ArrayPositionalList<E> implements PositionalList<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int FREE = -1;         // prev[] value of a slot on the free-list
+
+    // nested Slot class
+    /** Handle to one occupied slot of the list */
+    private static class Slot<E> implements Position<E> {
+        private final ArrayPositionalList<E> list;
+        private final int index;
+        private final int generation;
+
+        Slot(ArrayPositionalList<E> list, int index, int generation) {
+            this.list = list;
+            this.index = index;
+            this.generation = generation;
+        }
+
+        /**
+         * Returns element stored at this slot
+         * @return the stored element
+         * @throws IllegalStateException if the slot has been removed
+         */
+        public E getElement() throws IllegalStateException {
+            if (!list.isCurrent(this)) throw new IllegalStateException("Position no longer valid");
+            return (E) list.elements[index];
+        }
+    }
+
+    // Instance variables
+    private Object[] elements;
+    private int[] prev, next;       // links by slot index; slot 0 is the sentinel
+    private int[] generations;      // bumped each time a slot is freed
+    private Slot<E>[] handles;      // the Position of each occupied slot, null for free slots
+    private int freeHead = 0;       // first slot of the free-list, 0 if it is empty
+    private int used = 1;           // slots below this index have been handed out at least once
+    private int size = 0;
+
+    // Constructors
+
+    /** Constructs a new empty list */
+    public ArrayPositionalList() { this(DEFAULT_CAPACITY); }
+
+    /**
+     * Constructs a new empty list with room for the given number of elements
+     * @param capacity number of elements the list holds before growing
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ArrayPositionalList(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        elements = new Object[capacity + 1];
+        prev = new int[capacity + 1];
+        next = new int[capacity + 1];
+        generations = new int[capacity + 1];
+        handles = (Slot<E>[]) new Slot[capacity + 1];
+    }
+
+    // private utilities
+
+    /** @return true if the handle still names an occupied slot of this list */
+    private boolean isCurrent(Slot<E> slot) {
+        return prev[slot.index] != FREE && generations[slot.index] == slot.generation;
+    }
+
+    /**
+     * Verifies that a Position is a current slot of this list
+     * @param p a Position that should be in the list
+     * @return its slot index
+     * @throws IllegalArgumentException if p is not a valid Position
+     */
+    private int validate(Position<E> p) throws IllegalArgumentException {
+        if (!(p instanceof Slot)) throw new IllegalArgumentException("Invalid p");
+        Slot<E> slot = (Slot<E>) p;     // safe cast
+        if (slot.list != this) throw new IllegalArgumentException("p does not belong to this list");
+        if (!isCurrent(slot)) throw new IllegalArgumentException("p is no longer in the list");
+        return slot.index;
+    }
+
+    /** @return the handle of slot j, or null for the sentinel */
+    private Position<E> position(int j) {
+        return handles[j];              // handles[0] stays null: do not expose user to the sentinel
+    }
+
+    /** @return a slot taken from the free-list or from the unused tail, growing the arrays if needed */
+    private int allocate() {
+        if (freeHead != 0) {
+            int j = freeHead;
+            freeHead = next[j];
+            return j;
+        }
+        if (used == elements.length) {
+            int cap = Math.max(2 * elements.length, DEFAULT_CAPACITY + 1);
+            elements = Arrays.copyOf(elements, cap);
+            prev = Arrays.copyOf(prev, cap);
+            next = Arrays.copyOf(next, cap);
+            generations = Arrays.copyOf(generations, cap);
+            handles = Arrays.copyOf(handles, cap);
+        }
+        return used++;
+    }
+
+    /** Stores e in a new slot linked between pred and succ @return its Position */
+    private Position<E> addBetween(E e, int pred, int succ) {
+        int j = allocate();
+        elements[j] = e;
+        prev[j] = pred;
+        next[j] = succ;
+        next[pred] = j;
+        prev[succ] = j;
+        size++;
+        return handles[j] = new Slot<>(this, j, generations[j]);
+    }
+
+    // Accessors
+
+    /** Returns number of elements in list */
+    public int size() { return size; }
+
+    /** returns true if list is empty */
+    public boolean isEmpty() { return size == 0; }
+
+    /** @return the first Position in the list or null */
+    public Position<E> first() { return position(next[0]); }
+
+    /** @return the last Position in the list or null */
+    public Position<E> last() { return position(prev[0]); }
+
+    /**
+     * @param p a Position of the list
+     * @return the Position preceding p or null
+     * @throws IllegalArgumentException if p is not a valid Position
+     */
+    public Position<E> before(Position<E> p) throws IllegalArgumentException { return position(prev[validate(p)]); }
+
+    /**
+     * @param p a Position of the list
+     * @return the Position following p or null
+     * @throws IllegalArgumentException if p is not a valid Position
+     */
+    public Position<E> after(Position<E> p) throws IllegalArgumentException { return position(next[validate(p)]); }
+
+    // Mutators
+
+    /** Inserts element at front of list @return the Position of the new element */
+    public Position<E> addFirst(E e) { return addBetween(e, 0, next[0]); }
+
+    /** Inserts element at end of list @return the Position of the new element */
+    public Position<E> addLast(E e) { return addBetween(e, prev[0], 0); }
+
+    /**
+     * Inserts an element immediately before a given Position.
+     * @param p the Position to follow the new element
+     * @param e the new element
+     * @return the Position of the new element
+     * @throws IllegalArgumentException if p is not a valid Position in the list
+     */
+    public Position<E> addBefore(Position<E> p, E e) throws IllegalArgumentException {
+        int j = validate(p);
+        return addBetween(e, prev[j], j);
+    }
+
+    /**
+     * Inserts an element immediately after a given Position.
+     * @param p the Position to precede the new element
+     * @param e the new element
+     * @return the Position of the new element
+     * @throws IllegalArgumentException if p is not a valid Position in the list
+     */
+    public Position<E> addAfter(Position<E> p, E e) throws IllegalArgumentException {
+        int j = validate(p);
+        return addBetween(e, j, next[j]);
+    }
+
+    /**
+     * Replaces the element at a given Position with a new element and returns replaced element.
+     * @param p the Position of the element to be replaced
+     * @param e the new element
+     * @return the replaced element
+     * @throws IllegalArgumentException if p is not a valid Position in the list
+     */
+    public E set(Position<E> p, E e) throws IllegalArgumentException {
+        int j = validate(p);
+        E answer = (E) elements[j];
+        elements[j] = e;
+        return answer;
+    }
+
+    /**
+     * Removes the element at a given Position, freeing its slot for reuse
+     * @param p the Position to be removed
+     * @return the element contained at Position p
+     * @throws IllegalArgumentException if p is not a valid Position for this list
+     */
+    public E remove(Position<E> p) throws IllegalArgumentException {
+        return removeSlot(validate(p));
+    }
+
+    private E removeSlot(int j) {
+        next[prev[j]] = next[j];
+        prev[next[j]] = prev[j];
+        size--;
+        E answer = (E) elements[j];
+        elements[j] = null;             // Help with garbage collection
+        generations[j]++;               // outstanding handles to j become stale
+        handles[j] = null;
+        prev[j] = FREE;
+        next[j] = freeHead;
+        freeHead = j;
+        return answer;
+    }
+
+    // nested iterator classes
+
+    /** Walks the slots in list order */
+    private class SlotIterator {
+        private int cursor = next[0];   // slot of the next element to report
+        private int recent = 0;         // slot of the last reported element, 0 if none
+
+        public boolean hasNext() { return cursor != 0; }
+
+        /** @return slot of the next element @throws NoSuchElementException if there is none */
+        int nextSlot() throws NoSuchElementException {
+            if (cursor == 0) throw new NoSuchElementException("nothing left");
+            recent = cursor;
+            cursor = next[cursor];
+            return recent;
+        }
+
+        public void remove() throws IllegalStateException {
+            if (recent == 0) throw new IllegalStateException("nothing to remove");
+            removeSlot(recent);
+            recent = 0;                 // do not allow remove again until next is called
+        }
+    }
+
+    private class PositionIterator extends SlotIterator implements Iterator<Position<E>> {
+        public Position<E> next() { return position(nextSlot()); }
+    }
+
+    private class ElementIterator extends SlotIterator implements Iterator<E> {
+        public E next() { return (E) elements[nextSlot()]; }
+    }
+
+    /** @return iterable collection of Positions in list from first to last */
+    public Iterable<Position<E>> positions() { return PositionIterator::new; }
+
+    /** @return iterator of list's elements from first to last */
+    public Iterator<E> iterator() { return new ElementIterator(); }
+
+    /**
+     * Returns the elements in slot order, which matches list order only for a list built by addLast alone
+     * and never removed from. Scanning the arrays front to back is the fastest way to visit every element.
+     * @return iterable collection of the list's elements, skipping free slots
+     */
+    public Iterable<E> denseElements() {
+        return () -> new Iterator<E>() {
+            private int j = 1;          // next slot to examine
+
+            public boolean hasNext() {
+                while (j < used && prev[j] == FREE) j++;
+                return j < used;
+            }
+
+            public E next() {
+                if (!hasNext()) throw new NoSuchElementException("nothing left");
+                return (E) elements[j++];
+            }
+        };
+    }
+
+    public String toString() {
+        StringBuilder sb = new StringBuilder("(");
+        for (int j = next[0]; j != 0; j = next[j]) {
+            sb.append(elements[j]);
+            if (next[j] != 0) sb.append(", ");
+        }
+        sb.append(")");
+        return sb.toString();
+    }
+}
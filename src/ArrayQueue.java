@@ -0,0 +1,83 @@
+import java.util.Arrays;
+
+/**
+ * Queue stored in a circular array that doubles when full, so enqueue allocates nothing except when it grows.
+ * Used as the frontier of breadth-first searches, where a linked queue would allocate one node per visit.
+ */
+public class ArrayQueue<E> implements Queue<E> {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Instance variables
+    private E[] data;           // length is a power of two
+    private int f = 0;          // index of the front element
+    private int sz = 0;         // number of elements
+
+    // Constructors
+
+    /** Constructs an empty queue */
+    public ArrayQueue() { this(DEFAULT_CAPACITY); }
+
+    /**
+     * Constructs an empty queue with room for the given number of elements
+     * @param capacity number of elements the queue holds before growing
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public ArrayQueue(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = 1;
+        while (cap < capacity) cap <<= 1;
+        data = (E[]) new Object[cap];
+    }
+
+    /** @return number of elements in the queue */
+    @Override
+    public int size() { return sz; }
+
+    /** @return true if the queue is empty */
+    @Override
+    public boolean isEmpty() { return sz == 0; }
+
+    /** Adds an element at the rear of the queue, doubling the array if it is full */
+    @Override
+    public void enqueue(E e) {
+        if (sz == data.length) grow();
+        data[(f + sz) & (data.length - 1)] = e;
+        sz++;
+    }
+
+    /** @return the front element, or null if the queue is empty */
+    @Override
+    public E first() { return isEmpty() ? null : data[f]; }
+
+    /** Removes and returns the front element @return that element, or null if the queue is empty */
+    @Override
+    public E dequeue() {
+        if (isEmpty()) return null;
+        E answer = data[f];
+        data[f] = null;         // help garbage collection
+        f = (f + 1) & (data.length - 1);
+        sz--;
+        return answer;
+    }
+
+    /** Removes every element, keeping the array for reuse */
+    public void clear() {
+        while (sz > 0) dequeue();
+        f = 0;
+    }
+
+    /** Doubles the array, unwrapping the elements to the front of it */
+    private void grow() {
+        E[] old = data;
+        data = (E[]) new Object[Math.max(1, 2 * old.length)];
+        for (int k = 0; k < sz; k++) data[k] = old[(f + k) & (old.length - 1)];
+        f = 0;
+    }
+
+    // For debugging
+    public String toString() {
+        Object[] items = new Object[sz];
+        for (int k = 0; k < sz; k++) items[k] = data[(f + k) & (data.length - 1)];
+        return Arrays.toString(items);
+    }
+}
@@ -1,5 +1,10 @@
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
 public class Assignment05_Inman_Joshua_Main {
     private static class Student {
@@ -53,6 +58,11 @@ public class Assignment05_Inman_Joshua_Main {
         public int getElement() { return weight; }
     }
 
+    /** Input files at least this many bytes are loaded by the parallel memory-mapped loader */
+    static final long PARALLEL_LOAD_BYTES = 64L << 20;
+    /** Names of the graph's indexes on student first name and college */
+    static final String FIRST_NAME_INDEX = "firstName", COLLEGE_INDEX = "college";
+
     /** Prints menu of available options for user */
     public static void printMenu() {
         System.out.print("\n1. Remove friendship\n2. Delete Account\n3. Count friends\n4. Friends Circle\n5. Closeness centrality\n6. Find Connectors\n7. Exit\n\nPlease make a selection (enter 1-7): ");
@@ -71,6 +81,28 @@ public class Assignment05_Inman_Joshua_Main {
         }
     }
 
+    /**
+     * Builds a Student from the fields of one row of the input file
+     * @param fields the tab separated fields of the row
+     * @return the Student described by the row
+     */
+    static Student parseStudent(String[] fields) {
+        String id = fields[0], firstName = fields[1], lastName = fields[2],
+                college = fields[3].replaceAll("\"", ""), department = fields[4], email = fields[5];
+        int friendCount = Integer.parseInt(fields[6]);
+        return new Student(id, firstName, lastName, college, department, email, friendCount);
+    }
+
+    /**
+     * Builds a Student from one row of the input file, read in place by the parallel loader
+     * @param row the tab separated fields of the row
+     * @return the Student described by the row
+     */
+    static Student parseStudent(TsvRow row) {
+        return new Student(row.stringField(0), row.stringField(1), row.stringField(2), row.stringField(3).replaceAll("\"", ""),
+                row.stringField(4), row.stringField(5), row.intField(6));
+    }
+
     /**
      * Parses file with given name and adds entries to the Graph
      * @param filename the name of the file to read
@@ -78,59 +110,20 @@ public class Assignment05_Inman_Joshua_Main {
      * @return true if file read correctly, false if exception occurs
      */
     static boolean getDataFromFile(String filename, AdjacencyListGraph<Student, Friendship> graph) {
-        String filepath = "./" + filename;
-        File file = new File(filepath);
-
         try {
-            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
-            reader.readLine();  // Skip first line of input file (headers)
-            // Insert all vertices
-            while(reader.ready()) {
-                String[] nextInput = reader.readLine().split("\t");
-                String id = nextInput[0], firstName = nextInput[1], lastName = nextInput[2],
-                        college = nextInput[3].replaceAll("\"", ""), department = nextInput[4], email = nextInput[5];
-                int friendCount = Integer.parseInt(nextInput[6]);
-                Student s = new Student(id, firstName, lastName, college, department, email, friendCount);
-                graph.insertVertex(s);
-            }
-            // Go back to beginning of file to read existing friendships
-            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)));
-            reader.readLine();  // Skip first line of input file (headers)
-            // Insert edges
-            while(reader.ready()) {
-                String[] nextInput = reader.readLine().split("\t");
-                String id = nextInput[0], firstName = nextInput[1], lastName = nextInput[2],
-                        college = nextInput[3], department = nextInput[4], email = nextInput[5];
-                int friendCount = Integer.parseInt(nextInput[6]);
-                Student s = new Student(id, firstName, lastName, college, department, email, friendCount);
-                Iterable<Vertex<Student>> vertices = graph.vertices();
-                Vertex currentVertex = null, newFriend = null;
-                for(Vertex v : vertices) {
-                    Student current = (Student) v.getElement();
-                    if(current.isEqual(s)) {
-                        currentVertex = v;
-                        break;
-                    }
-                }
-                for(int i = 7; i < nextInput.length; ++i) {
-                    Student friend = new Student(nextInput[i]);
-                    for(Vertex v : vertices) {
-                        Student current = (Student)v.getElement();
-                        if(current.isEqual(friend)) {
-                            newFriend = v;
-                            break;
-                        }
-                    }
-                    try {
-                        graph.insertEdge(currentVertex, newFriend, new Friendship());
-                    } catch(IllegalArgumentException e) {}
-                }
-            }
+            Path path = Paths.get(filename);
+            GraphLoader.LoadReport report;
+            if (Files.size(path) >= PARALLEL_LOAD_BYTES)
+                report = GraphLoader.loadTsvParallel(path, graph, Assignment05_Inman_Joshua_Main::parseStudent,
+                        Friendship::new, ForkJoinPool.commonPool());
+            else
+                report = GraphLoader.loadTsv(path, graph, Assignment05_Inman_Joshua_Main::parseStudent, Friendship::new);
             System.out.println("Input file is read successfully..");
+            System.out.println(report);
             printInfo(graph);
             return true;
         }
-        catch(FileNotFoundException e) {
+        catch(NoSuchFileException e) {
             System.out.println("File not found.");
             return false;
         } catch (IOException e) {
@@ -144,101 +137,56 @@ public class Assignment05_Inman_Joshua_Main {
      * Used to generate friend circles in a given college
      * @param g the graph to search
      * @param s the Vertex at which to begin the search
-     * @param known a set of Vertices which have already been traversed during search
-     * @param forest a forest to update with matching Vertices
+     * @param known flags, indexed by vertex id, of Vertices which have already been traversed during search
+     * @param forest discovery edges, indexed by vertex id, to update with matching Vertices
      * @param collegeName the name of the college matching Vertices belong to
      */
     // Breadth-first search of graph
-    public static void collegeBFS(AdjacencyListGraph<Student,Friendship> g, Vertex<Student> s, Set<Vertex<Student>> known, Map<Vertex<Student>,
-            Edge<Friendship>> forest, String collegeName) {
-        PositionalList<Vertex<Student>> level = new LinkedPositionalList<>();
-        forest.put(s, null);
-        known.add(s);
-        level.addLast(s);
-        while(!level.isEmpty()) {
-            PositionalList<Vertex<Student>> nextLevel = new LinkedPositionalList<>();
-            for(Vertex<Student> u: level) {
-                for(Edge<Friendship> e : g.outgoingEdgeList(u)) {
-                    Vertex<Student> v = g.opposite(u, e);
-                    Student vStudent = v.getElement();
-                    String vCollege = vStudent.getCollege();
-                    if(!known.contains(v)) {
-                        known.add(v);
-                        if(collegeName.equals(vCollege)) forest.put(v, e);
-                        nextLevel.addLast(v);
+    public static void collegeBFS(AdjacencyListGraph<Student,Friendship> g, Vertex<Student> s, boolean[] known,
+                                  Edge<Friendship>[] forest, String collegeName) {
+        PositionalList<Vertex<Student>> circle = new LinkedPositionalList<>();
+        Queue<Vertex<Student>> frontier = new ArrayQueue<>();
+        circle.addLast(s);
+        known[g.vertexId(s)] = true;
+        frontier.enqueue(s);
+        while(!frontier.isEmpty()) {
+            Vertex<Student> u = frontier.dequeue();
+            for(Edge<Friendship> e : g.outgoingEdgeList(u)) {
+                Vertex<Student> v = g.opposite(u, e);
+                int vId = g.vertexId(v);
+                if(!known[vId]) {
+                    known[vId] = true;
+                    if(collegeName.equals(v.getElement().getCollege())) {
+                        forest[vId] = e;
+                        circle.addLast(v);
                     }
+                    frontier.enqueue(v);
                 }
-                level = nextLevel;
             }
         }
         int i = 1;
-        for (Entry<Vertex<Student>, Edge<Friendship>> entry : forest.entrySet()) {
-            System.out.print(entry.getKey().getElement().getStudentsFirstName());
-            if(!(i++ == forest.size())) System.out.print(" - ");
+        for (Vertex<Student> member : circle) {
+            System.out.print(member.getElement().getStudentsFirstName());
+            if(!(i++ == circle.size())) System.out.print(" - ");
             else System.out.println();
         }
     }
 
-    /**
-     * Finds the shortest path lengths between starting Vertex and other vertices in graph
-     * Dijkstra's Algorithm
-     * @param g the graph to be searched
-     * @param src  the root of the search
-     * @return a Map of shortest lengths from src to all other reachable Vertices
-     */
-    // Dijkstra's algorithm
-    public static <Student> Map<Vertex<Student>, Integer> shortestPathLengths(AdjacencyListGraph<Student, Friendship> g, Vertex<Student> src) {
-        // d.get(v) is upper bound on distance from src to v
-        Map<Vertex<Student>, Integer> d = new ProbeHashMap<>();
-        // map reachable v to its d value
-        Map<Vertex<Student>, Integer> cloud = new ProbeHashMap<>();
-        // pq will have vertices as elements, with d.get(v) as key
-        AdaptablePriorityQueue<Integer, Vertex<Student>> pq;
-        pq = new HeapAdaptablePriorityQueue<>();
-        Map<Vertex<Student>, Entry<Integer, Vertex<Student>>> pqTokens;
-        pqTokens = new ProbeHashMap<>();
-
-        for (Vertex<Student> v : g.vertices()) {
-            if(v == src)
-                d.put(v,0);
-            else
-                d.put(v, Integer.MAX_VALUE);
-            pqTokens.put(v, pq.insert(d.get(v), v));
-        }
-
-        while(!pq.isEmpty()) {
-            Entry<Integer, Vertex<Student>> entry = pq.removeMin();
-            int key = entry.getKey();
-            Vertex<Student> u = entry.getValue();
-            cloud.put(u, key);
-            pqTokens.remove(u);
-            for (Edge<Friendship> e : g.outgoingEdgeList(u)) {
-                Vertex<Student> v = g.opposite(u, e);
-                if (cloud.get(v) == null) {
-                    if (d.get(u) + e.getElement().getElement() < d.get(v)) {
-                        d.put(v, d.get(u) + e.getElement().getElement());
-                        pq.replaceKey(pqTokens.get(v), d.get(v));
-                    }
-                }
-            }
-        }
-        return cloud;
-    }
-
     /**
      * Performs a depth-first search on a given graph
      * @param g the graph to be searched
      * @param u the Vertex at which to begin the search
-     * @param known a map of previously visited vertices
-     * @param forest a map to update with vertices in the order they are traversed
+     * @param known flags, indexed by vertex id, of previously visited vertices
+     * @param forest discovery edges indexed by vertex id, updated as vertices are traversed
      */
     public static <Student, Friendship> void DFS(AdjacencyListGraph<Student,Friendship> g, Vertex<Student> u,
-                                                 Set<Vertex<Student>> known, Map<Vertex<Student>, Edge<Friendship>> forest) {
-        known.add(u);
+                                                 boolean[] known, Edge<Friendship>[] forest) {
+        known[g.vertexId(u)] = true;
         for(Edge<Friendship> e : g.outgoingEdgeList(u)) {
             Vertex<Student> v = g.opposite(u,e);
-            if(!known.contains(v)) {
-                forest.put(v,e);
+            int vId = g.vertexId(v);
+            if(!known[vId]) {
+                forest[vId] = e;
                 DFS(g,v,known,forest);
             }
         }
@@ -249,16 +197,16 @@ public class Assignment05_Inman_Joshua_Main {
      * @param g the graph to be searched
      * @param u the starting vertex
      * @param v the vertex to be reached
-     * @param forest A map of vertices reached and edges travelled
+     * @param forest discovery edges indexed by vertex id
      * @return a list of edges travelled
      */
     public static <Student,Friendship> PositionalList<Edge<Friendship>> constructPath(Graph<Student,Friendship> g, Vertex<Student> u,
-                                                                                      Vertex<Student> v, Map<Vertex<Student>, Edge<Friendship>> forest) {
+                                                                                      Vertex<Student> v, Edge<Friendship>[] forest) {
         PositionalList<Edge<Friendship>> path = new LinkedPositionalList<>();
-        if(forest.get(v) != null) {
+        if(forest[g.vertexId(v)] != null) {
             Vertex<Student> walk = v;
             while (walk != u) {
-                Edge<Friendship> edge = forest.get(walk);
+                Edge<Friendship> edge = forest[g.vertexId(walk)];
                 path.addFirst(edge);
                 walk = g.opposite(walk, edge);
             }
@@ -269,16 +217,28 @@ public class Assignment05_Inman_Joshua_Main {
     /**
      * Performs depth-first search on unconnected graph
      * @param g the graph to be searched
-     * @return a Map representing a forest of Vertices and Edges traversed
+     * @return discovery edges indexed by vertex id, null for the root of each tree
      */
-    public static <Student,Friendship> Map<Vertex<Student>, Edge<Friendship>> DFSComplete(AdjacencyListGraph<Student,Friendship> g) {
-        Set<Vertex<Student>> known = new HashSet<>();
-        Map<Vertex<Student>, Edge<Friendship>> forest = new ProbeHashMap<>();
+    public static <Student,Friendship> Edge<Friendship>[] DFSComplete(AdjacencyListGraph<Student,Friendship> g) {
+        boolean[] known = new boolean[g.vertexIdBound()];
+        Edge<Friendship>[] forest = (Edge<Friendship>[]) new Edge[g.vertexIdBound()];
         for(Vertex<Student> u : g.vertices())
-            if(!known.contains(u)) DFS(g, u, known, forest);
+            if(!known[g.vertexId(u)]) DFS(g, u, known, forest);
         return forest;
     }
 
+    /**
+     * Finds a student by first name through the graph's first name index
+     * @param graph the graph to search
+     * @param firstName the first name of the student
+     * @return the Vertex of some student with that name, the first added if none with that name was removed,
+     *         or null if there is none
+     */
+    static Vertex<Student> findStudent(AdjacencyListGraph<Student, Friendship> graph, String firstName) {
+        List<Vertex<Student>> matches = graph.lookup(FIRST_NAME_INDEX, firstName);
+        return matches.isEmpty() ? null : matches.get(0);
+    }
+
     /** prints the number of vertices and edges in the graph to the console */
     public static void printInfo(AdjacencyListGraph<Student,Friendship> graph) {
         System.out.println("Total number of vertices in the graph: " + graph.numVertices());
@@ -287,7 +247,9 @@ public class Assignment05_Inman_Joshua_Main {
 
     public static void main(String[] args) {
         Scanner scnr = new Scanner(System.in);
-        AdjacencyListGraph<Student, Friendship> graph = new AdjacencyListGraph(false);
+        AdjacencyListGraph<Student, Friendship> graph = new AdjacencyListGraph<>(false, true);
+        graph.addPrefixIndex(FIRST_NAME_INDEX, Student::getStudentsFirstName);
+        graph.addIndex(COLLEGE_INDEX, Student::getCollege);
         boolean fileFound = false;
         while(!fileFound) {
             System.out.print("Please enter the file's name: ");
@@ -295,7 +257,6 @@ public class Assignment05_Inman_Joshua_Main {
         }
         int selection = getUserSelection(scnr);
         while(selection != 7) {     // Continue until user enters 7 to exit
-            Iterable<Vertex<Student>> vertices = graph.vertices();
             boolean found = false;
             switch (selection) {
                 case 1:
@@ -304,13 +265,8 @@ public class Assignment05_Inman_Joshua_Main {
                     Student s1 = new Student(null, scnr.nextLine());
                     System.out.print("Please enter the first name of the second student: ");
                     Student s2 = new Student(null, scnr.nextLine());
-                    Vertex<Student> v1 = null, v2 = null;
-                    for (Vertex<Student> v : vertices) {
-                        Student curr = v.getElement();
-                        if (curr.isEqual(s1)) v1 = v;
-                        if (curr.isEqual(s2)) v2 = v;
-                        if (v1 != null && v2 != null) break;
-                    }
+                    Vertex<Student> v1 = findStudent(graph, s1.getStudentsFirstName()),
+                            v2 = findStudent(graph, s2.getStudentsFirstName());
                     if (v1 == null || v2 == null) {
                         System.out.println("Sorry..");
                         if (v1 == null) System.out.println(s1.getStudentsFirstName() + " not found!");
@@ -333,15 +289,12 @@ public class Assignment05_Inman_Joshua_Main {
                     // Delete Account
                     System.out.print("Please enter the first name of the student to remove: ");
                     Student s = new Student(null, scnr.nextLine());
-                    for (Vertex v : vertices) {
-                        Student current = (Student) v.getElement();
-                        if (current.isEqual(s)) {
-                            found = true;
-                            graph.removeVertex(v);
-                            System.out.println("The student " + s.getStudentsFirstName() + " has been successfully removed.");
-                            printInfo(graph);
-                            break;
-                        }
+                    Vertex<Student> account = findStudent(graph, s.getStudentsFirstName());
+                    if (account != null) {
+                        found = true;
+                        graph.removeVertex(account);
+                        System.out.println("The student " + s.getStudentsFirstName() + " has been successfully removed.");
+                        printInfo(graph);
                     }
                     if (!found) System.out.println("Sorry..\n" + s.getStudentsFirstName() + " not found!");
                     break;
@@ -349,24 +302,22 @@ public class Assignment05_Inman_Joshua_Main {
                     // Count friends
                     System.out.print("Please enter the name of the student: ");
                     Student lonely = new Student(null, scnr.nextLine());
-                    for (Vertex v : vertices) {
-                        Student current = (Student) v.getElement();
-                        if (current.isEqual(lonely)) {
-                            found = true;
-                            Iterable<Edge<Friendship>> friends = graph.friendsList(v);
-                            int count = 0;
-                            for (Edge<Friendship> friendship : friends) {
-                                if (friendship.getElement() != null) count += 1;
-                            }
-                            System.out.println("Friend count for " + current.getStudentsFirstName() + ": " + count);
-                            System.out.println("Friends of " + current.getStudentsFirstName() + " are:");
-                            for (Edge<Friendship> friendship : friends) {
-                                if (friendship.getElement() != null) {
-                                    Vertex<Student> friend = graph.opposite(v, friendship);
-                                    System.out.println(friend.getElement().getStudentsFirstName());
-                                }
+                    Vertex<Student> v = findStudent(graph, lonely.getStudentsFirstName());
+                    if (v != null) {
+                        found = true;
+                        Student current = v.getElement();
+                        Iterable<Edge<Friendship>> friends = graph.friendsList(v);
+                        int count = 0;
+                        for (Edge<Friendship> friendship : friends) {
+                            if (friendship.getElement() != null) count += 1;
+                        }
+                        System.out.println("Friend count for " + current.getStudentsFirstName() + ": " + count);
+                        System.out.println("Friends of " + current.getStudentsFirstName() + " are:");
+                        for (Edge<Friendship> friendship : friends) {
+                            if (friendship.getElement() != null) {
+                                Vertex<Student> friend = graph.opposite(v, friendship);
+                                System.out.println(friend.getElement().getStudentsFirstName());
                             }
-                            break;
                         }
                     }
                     if (!found) System.out.println("Sorry..\n" + lonely.getStudentsFirstName() + " not found!");
@@ -375,47 +326,37 @@ public class Assignment05_Inman_Joshua_Main {
                     // Friend circle via BFS
                     System.out.print("Which college would you like to search? ");
                     String collegeName = scnr.nextLine().replaceAll("\"", "");
-                    Set known = new HashSet();
+                    boolean[] known = new boolean[graph.vertexIdBound()];
+                    Edge<Friendship>[] forest = (Edge<Friendship>[]) new Edge[graph.vertexIdBound()];
                     System.out.println("Following are the friend circles in " + collegeName);
-                    for (Vertex v : vertices) {
-                        Map forest = new ProbeHashMap();
-                        Student current = (Student) v.getElement();
-                        if(current.getCollege().equals(collegeName) && !(known.contains(v)))
-                            collegeBFS(graph, v, known, forest, collegeName);
+                    for (Vertex<Student> member : graph.lookup(COLLEGE_INDEX, collegeName)) {
+                        if(!known[graph.vertexId(member)])
+                            collegeBFS(graph, member, known, forest, collegeName);
                     }
                     break;
                 case 5:
                     // Closeness centrality à la Dijkstra's Algorithm
                     System.out.print("Please enter the student's name: ");
                     Student howClose = new Student(null, scnr.nextLine());
-                    for (Vertex v : vertices) {
-                        Student current = (Student) v.getElement();
-                        if (current.isEqual(howClose)) {
-                            found = true;
-                            Map<Vertex<Student>, Integer> lengths = shortestPathLengths(graph, v);
-                            Iterable<Entry<Vertex<Student>, Integer>> entries = lengths.entrySet();
-                            double sum = 0;
-                            for (Entry<Vertex<Student>, Integer> entry : entries) {
-                                if (entry.getValue() > 0 && entry.getValue() < 1000)
-                                    sum += 1.0 / entry.getValue();
-                            }
-                            System.out.println("The Closeness Centrality for " + howClose.getStudentsFirstName() + ": " + sum);
-                            System.out.println("The Normalized Closeness Centrality for " + howClose.getStudentsFirstName() + ": " + sum / (graph.numVertices() - 1));
-                            break;
-                        }
+                    Vertex<Student> source = findStudent(graph, howClose.getStudentsFirstName());
+                    if (source != null) {
+                        found = true;
+                        ClosenessCentrality.Result closeness = ClosenessCentrality.unweighted(graph).compute(source);
+                        System.out.println("The Closeness Centrality for " + howClose.getStudentsFirstName() + ": " + closeness.getCloseness());
+                        System.out.println("The Normalized Closeness Centrality for " + howClose.getStudentsFirstName() + ": " + closeness.getNormalized());
                     }
                     if (!found) System.out.println("Sorry..\n" + howClose.getStudentsFirstName() + " not found!");
                     break;
                 case 6:
                     // Display connectors in graph
-                    Map<Vertex<Student>, Edge<Friendship>> spanningForest = DFSComplete(graph);
-                    if(spanningForest.size() == 0)
-                        System.out.println("There are no connectors in the graph.");
-                    else {
-                        System.out.println("The connectors in the graph are as follows:");
-                        for (Entry<Vertex<Student>, Edge<Friendship>> kv : spanningForest.entrySet())
-                            System.out.println(kv.getKey().getElement().getStudentsFirstName() + " from " + kv.getKey().getElement().getCollege());
+                    int[] connectors = Connectors.find(graph).connectors();
+                    if (connectors.length > 0) System.out.println("The connectors in the graph are as follows:");
+                    for (int id : connectors) {
+                        Student connector = graph.vertexAt(id).getElement();
+                        System.out.println(connector.getStudentsFirstName() + " from " + connector.getCollege());
                     }
+                    if (connectors.length == 0)
+                        System.out.println("There are no connectors in the graph.");
                     break;
                 default:
                     // Selection was outside proper range
@@ -0,0 +1,219 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.ToIntFunction;
+
+/**
+ * Betweenness centrality of the vertices of an AdjacencyListGraph by Brandes' algorithm.
+ *
+ * The graph is copied once into a CSR snapshot, and single-source dependency computations are spread over
+ * a ForkJoinPool in batches of sources. Each task borrows a worker's arrays from an idle queue, or creates a worker
+ * if none is idle, adds dependencies into its accumulator and returns it; there are never more workers than tasks
+ * running at once, and the accumulators are summed and dropped once every source is done. Workers keep their
+ * own TraversalContext rather than the pool thread's, so nothing n-sized stays reachable from the pool afterwards.
+ * Unweighted graphs are searched breadth-first, weighted ones with Dijkstra's algorithm. Shortest paths are
+ * counted in doubles, so their number may be huge. Sampled mode uses a random subset of sources as pivots and
+ * scales the result up, for graphs too large for the exact O(V * E) computation.
+ */
+public class BetweennessCentrality<V, E> {
+    /** Number of sources handled by one task */
+    private static final int SOURCES_PER_TASK = 16;
+
+    /** Scratch and accumulator arrays used by one task at a time, including a traversal context of its own */
+    private static class Worker {
+        private final double[] sigma, delta, betweenness;
+        private final int[] order;
+        private final TraversalContext context = TraversalContext.detached();
+
+        Worker(int n) {
+            sigma = new double[n];
+            delta = new double[n];
+            betweenness = new double[n];
+            order = new int[n];
+        }
+    }
+
+    // Instance variables
+    private final CsrGraph<V, E> csr;
+    private final ToIntFunction<E> weight;
+    private final int n;
+    private final int maxWeight;            // largest weight of any edge, which chooses Dijkstra's queue
+    private final ConcurrentLinkedQueue<Worker> workers = new ConcurrentLinkedQueue<>();    // every worker created
+    private final ConcurrentLinkedQueue<Worker> idle = new ConcurrentLinkedQueue<>();       // workers free to borrow
+
+    private BetweennessCentrality(AdjacencyListGraph<V, E> g, ToIntFunction<E> weight) {
+        csr = g.toCsr();
+        this.weight = weight;
+        n = csr.numVertices();
+        int max = 1;
+        if (weight != null)
+            for (int k = 0; k < csr.numEdges(); k++) {
+                int w = weight.applyAsInt(csr.edgeElement(k));
+                if (w <= 0) throw new IllegalArgumentException("Edge weights must be positive");
+                max = Math.max(max, w);
+            }
+        maxWeight = max;
+    }
+
+    /**
+     * Computes exact betweenness centrality, using every vertex as a source
+     * @param g the graph to be measured
+     * @param weight extracts a positive weight from each edge element, or null if the graph is unweighted
+     * @param pool the pool on which sources are processed
+     * @return betweenness by vertex id of g; for an undirected graph each pair of endpoints is counted once
+     * @throws IllegalArgumentException if some weight is not positive
+     */
+    public static <V, E> double[] compute(AdjacencyListGraph<V, E> g, ToIntFunction<E> weight, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        BetweennessCentrality<V, E> engine = new BetweennessCentrality<>(g, weight);
+        int[] sources = new int[engine.n];
+        for (int s = 0; s < sources.length; s++) sources[s] = s;
+        return engine.run(g, sources, 1.0, pool);
+    }
+
+    /**
+     * Estimates betweenness centrality from a random sample of source vertices, scaled by n / pivots
+     * @param g the graph to be measured
+     * @param weight extracts a positive weight from each edge element, or null if the graph is unweighted
+     * @param pivots number of sources to sample; the computation is exact if this is at least the number of vertices
+     * @param random chooses the pivots
+     * @param pool the pool on which sources are processed
+     * @return estimated betweenness by vertex id of g
+     * @throws IllegalArgumentException if pivots is not positive or some weight is not positive
+     */
+    public static <V, E> double[] sample(AdjacencyListGraph<V, E> g, ToIntFunction<E> weight, int pivots, Random random,
+                                         ForkJoinPool pool) throws IllegalArgumentException {
+        if (pivots <= 0) throw new IllegalArgumentException("pivots must be positive");
+        BetweennessCentrality<V, E> engine = new BetweennessCentrality<>(g, weight);
+        int n = engine.n;
+        int[] all = new int[n];
+        for (int s = 0; s < n; s++) all[s] = s;
+        int k = Math.min(pivots, n);
+        for (int i = 0; i < k; i++) {       // partial Fisher-Yates shuffle
+            int j = i + random.nextInt(n - i);
+            int swap = all[i];
+            all[i] = all[j];
+            all[j] = swap;
+        }
+        int[] sources = Arrays.copyOf(all, k);
+        return engine.run(g, sources, k == 0 ? 1.0 : (double) n / k, pool);
+    }
+
+    /** Processes the given sources in parallel and reduces the workers' accumulators */
+    private double[] run(AdjacencyListGraph<V, E> g, int[] sources, double scale, ForkJoinPool pool) {
+        ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int from = 0; from < sources.length; from += SOURCES_PER_TASK) {
+            int start = from, end = Math.min(sources.length, from + SOURCES_PER_TASK);
+            tasks.add(pool.submit(() -> {
+                Worker w = idle.poll();
+                if (w == null) workers.add(w = new Worker(n));
+                try {
+                    for (int i = start; i < end; i++) accumulate(sources[i], w);
+                } finally {
+                    idle.offer(w);
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) task.join();
+
+        if (!csr.isDirected()) scale /= 2;         // each undirected path was counted from both of its ends
+        double[] answer = new double[g.vertexIdBound()];
+        for (Worker w : workers)
+            for (int row = 0; row < n; row++) answer[g.vertexId(csr.sourceVertex(row))] += w.betweenness[row];
+        for (int id = 0; id < answer.length; id++) answer[id] *= scale;
+        workers.clear();
+        idle.clear();
+        return answer;
+    }
+
+    /** Adds the dependencies of every vertex on source s to the worker's accumulator */
+    private void accumulate(int s, Worker w) {
+        int[] inOffsets = csr.inOffsets(), inNeighbors = csr.inNeighbors(), inSlotEdges = csr.inSlotEdges();
+        double[] sigma = w.sigma, delta = w.delta;
+        int[] order = w.order;
+        try (TraversalContext ctx = w.context.begin(n)) {
+            int[] dist = ctx.ints(0);
+            int settled = (weight == null) ? bfs(s, ctx, sigma, delta, order) : dijkstra(s, ctx, sigma, delta, order);
+
+            // walk vertices from farthest to nearest, pushing dependencies back to their predecessors
+            for (int i = settled - 1; i > 0; i--) {
+                int x = order[i];
+                double share = (1 + delta[x]) / sigma[x];
+                for (int j = inOffsets[x]; j < inOffsets[x + 1]; j++) {
+                    int v = inNeighbors[j];
+                    int len = (weight == null) ? 1 : weight.applyAsInt(csr.edgeElement(inSlotEdges[j]));
+                    if (ctx.isMarked(v) && dist[v] + len == dist[x]) delta[v] += sigma[v] * share;
+                }
+                w.betweenness[x] += delta[x];
+            }
+        }
+    }
+
+    /** Breadth-first pass from s counting shortest paths @return number of vertices reached, listed in order */
+    private int bfs(int s, TraversalContext ctx, double[] sigma, double[] delta, int[] order) {
+        int[] offsets = csr.offsets(), neighbors = csr.neighbors();
+        int[] dist = ctx.ints(0);
+        IntRingQueue queue = ctx.frontier();
+        int tail = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        sigma[s] = 1;
+        delta[s] = 0;
+        order[tail++] = s;
+        queue.enqueue(s);
+        while (!queue.isEmpty()) {
+            int u = queue.dequeue();
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = neighbors[j];
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = dist[u] + 1;
+                    sigma[v] = 0;
+                    delta[v] = 0;
+                    order[tail++] = v;
+                    queue.enqueue(v);
+                }
+                if (dist[v] == dist[u] + 1) sigma[v] += sigma[u];
+            }
+        }
+        return tail;
+    }
+
+    /** Dijkstra pass from s counting shortest paths @return number of vertices settled, listed in settling order */
+    private int dijkstra(int s, TraversalContext ctx, double[] sigma, double[] delta, int[] order) {
+        int[] offsets = csr.offsets(), neighbors = csr.neighbors(), slotEdges = csr.slotEdges();
+        int[] dist = ctx.ints(0);
+        IntPriorityQueue pq = ctx.queueFor(maxWeight);    // a marked vertex is settled once it has left the queue
+        int settled = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        sigma[s] = 1;
+        delta[s] = 0;
+        pq.insert(s, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.removeMin();
+            order[settled++] = u;
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = neighbors[j];
+                int d = dist[u] + weight.applyAsInt(csr.edgeElement(slotEdges[j]));
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = d;
+                    sigma[v] = sigma[u];
+                    delta[v] = 0;
+                    pq.insert(v, d);
+                } else if (!pq.contains(v) || d > dist[v]) continue;
+                else if (d == dist[v]) sigma[v] += sigma[u];
+                else {
+                    dist[v] = d;
+                    sigma[v] = sigma[u];
+                    pq.decreaseKey(v, d);
+                }
+            }
+        }
+        return settled;
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.ArrayList;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Closeness centrality of every vertex of a CSR snapshot, computed in parallel.
+ *
+ * Sources are split into batches that run as tasks of a ForkJoinPool; each task runs one single-source
+ * search per source with the scratch arrays of its worker's TraversalContext, and writes the closeness of
+ * each source straight into a shared double array. Closeness is measured as in ClosenessCentrality:
+ * the sum of reciprocal distances to the reachable vertices, found by BFS when every edge weighs the same.
+ */
+public class ClosenessBatch<V, E> {
+    /** Number of sources searched by one task */
+    private static final int SOURCES_PER_TASK = 64;
+
+    // Instance variables
+    private final CsrGraph<V, E> graph;
+    private final ToIntFunction<E> weight;
+    private final int uniformWeight;            // weight of every edge, or 0 if the weights differ
+    private final int maxWeight;                // largest weight of any edge, which chooses Dijkstra's queue
+    private final IntConsumer progress;
+    private final double[] closeness;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final ArrayList<ForkJoinTask<?>> tasks = new ArrayList<>();
+    private volatile boolean cancelled = false;
+
+    private ClosenessBatch(CsrGraph<V, E> graph, ToIntFunction<E> weight, IntConsumer progress) {
+        this.graph = graph;
+        this.weight = weight;
+        this.progress = progress;
+        closeness = new double[graph.numVertices()];
+        int uniform = 1, max = 1;
+        if (weight != null) {
+            uniform = -1;
+            max = 0;
+            for (int k = 0; k < graph.numEdges(); k++) {
+                int w = weight.applyAsInt(graph.edgeElement(k));
+                if (w < 0) throw new IllegalArgumentException("Negative edge weight");
+                if (uniform == -1) uniform = w;
+                else if (uniform != w) uniform = 0;
+                max = Math.max(max, w);
+            }
+        }
+        uniformWeight = Math.max(uniform, 0);
+        maxWeight = max;
+    }
+
+    /**
+     * Starts computing the closeness centrality of every vertex
+     * @param graph the snapshot to be measured
+     * @param weight extracts a non-negative weight from each edge element, or null if every edge has weight 1
+     * @param pool the pool on which searches run
+     * @param progress told the number of sources finished so far after each batch, from worker threads; may be null
+     * @return the running computation
+     * @throws IllegalArgumentException if some weight is negative
+     */
+    public static <V, E> ClosenessBatch<V, E> start(CsrGraph<V, E> graph, ToIntFunction<E> weight, ForkJoinPool pool,
+                                                    IntConsumer progress) throws IllegalArgumentException {
+        ClosenessBatch<V, E> batch = new ClosenessBatch<>(graph, weight, progress);
+        int n = graph.numVertices();
+        for (int from = 0; from < n; from += SOURCES_PER_TASK) {
+            int start = from, end = Math.min(n, from + SOURCES_PER_TASK);
+            batch.tasks.add(pool.submit(() -> batch.run(start, end)));
+        }
+        return batch;
+    }
+
+    /**
+     * Computes the closeness centrality of every vertex, waiting for the result
+     * @param graph the snapshot to be measured
+     * @param pool the pool on which searches run
+     * @return closeness of every vertex by row number; divide by n - 1 for normalized closeness
+     */
+    public static <V, E> double[] closenessCentrality(CsrGraph<V, E> graph, ForkJoinPool pool) {
+        return start(graph, null, pool, null).join();
+    }
+
+    /** Asks the computation to stop; batches already running finish their current source */
+    public void cancel() {
+        cancelled = true;
+        for (ForkJoinTask<?> task : tasks) task.cancel(false);
+    }
+
+    /** @return true if cancel has been called */
+    public boolean isCancelled() { return cancelled; }
+
+    /** @return number of sources whose closeness is known */
+    public int completed() { return completed.get(); }
+
+    /**
+     * Waits for every source to be finished
+     * @return closeness of every vertex by row number; divide by n - 1 for normalized closeness
+     * @throws CancellationException if the computation was cancelled
+     */
+    public double[] join() throws CancellationException {
+        for (ForkJoinTask<?> task : tasks) {
+            if (cancelled) break;
+            task.join();
+        }
+        if (cancelled) throw new CancellationException("closeness computation cancelled");
+        return closeness;
+    }
+
+    /** Searches from each source in [from, to) */
+    private void run(int from, int to) {
+        for (int s = from; s < to; s++) {
+            if (cancelled) return;
+            try (TraversalContext ctx = TraversalContext.acquire(graph.numVertices())) {     // the worker's pooled arrays
+                closeness[s] = (uniformWeight > 0) ? bfs(s, ctx) : dijkstra(s, ctx);
+            }
+        }
+        int done = completed.addAndGet(to - from);
+        if (progress != null) progress.accept(done);
+    }
+
+    /** @return sum of reciprocal distances from s, by breadth-first search */
+    private double bfs(int s, TraversalContext ctx) {
+        int[] offsets = graph.offsets(), neighbors = graph.neighbors();
+        int[] dist = ctx.ints(1);
+        IntRingQueue queue = ctx.frontier();
+        double sum = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        queue.enqueue(s);
+        while (!queue.isEmpty()) {
+            int u = queue.dequeue();
+            int d = dist[u] + 1;
+            double contribution = 1.0 / ((double) d * uniformWeight);
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = neighbors[j];
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = d;
+                    queue.enqueue(v);
+                    sum += contribution;
+                }
+            }
+        }
+        return sum;
+    }
+
+    /** @return sum of reciprocal distances from s, by Dijkstra's algorithm over the context's queue for the weights */
+    private double dijkstra(int s, TraversalContext ctx) {
+        int[] offsets = graph.offsets(), neighbors = graph.neighbors(), slotEdges = graph.slotEdges();
+        int[] dist = ctx.ints(0);
+        IntPriorityQueue pq = ctx.queueFor(maxWeight);
+        double sum = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        pq.insert(s, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.removeMin();
+            if (dist[u] > 0) sum += 1.0 / dist[u];
+            for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+                int v = neighbors[j];
+                int d = dist[u] + weight.applyAsInt(graph.edgeElement(slotEdges[j]));
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = d;
+                    pq.insert(v, d);
+                } else if (d < dist[v] && pq.contains(v)) {
+                    dist[v] = d;
+                    pq.decreaseKey(v, d);
+                }
+            }
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.function.ToIntFunction;
+
+/**
+ * Closeness centrality of single vertices of an AdjacencyListGraph.
+ *
+ * The closeness of s is the sum of 1 / d(s, v) over every vertex v reachable from s at a positive distance,
+ * and its normalized closeness divides that by n - 1. When every edge has the same positive weight the
+ * distances are hop counts times that weight, so they are found by a breadth-first search over int arrays;
+ * other weights fall back to Dijkstra's algorithm. Both sums are accumulated as vertices are settled.
+ */
+public class ClosenessCentrality<V, E> {
+    /** Closeness of one vertex */
+    public static class Result {
+        private final double closeness, normalized;
+        private final int reached;
+
+        Result(double closeness, double normalized, int reached) {
+            this.closeness = closeness;
+            this.normalized = normalized;
+            this.reached = reached;
+        }
+
+        /** @return sum of the reciprocal distances to the vertices reachable from the source */
+        public double getCloseness() { return closeness; }
+
+        /** @return closeness divided by the number of other vertices in the graph */
+        public double getNormalized() { return normalized; }
+
+        /** @return number of vertices reached, including the source */
+        public int getReached() { return reached; }
+    }
+
+    // Instance variables
+    private final AdjacencyListGraph<V, E> graph;
+    private final ToIntFunction<E> weight;
+    private final int uniformWeight;        // weight of every edge, or 0 if the weights differ
+    private final int maxWeight;            // largest weight of any edge, which chooses Dijkstra's queue
+
+    private ClosenessCentrality(AdjacencyListGraph<V, E> graph, ToIntFunction<E> weight, int uniformWeight, int maxWeight) {
+        this.graph = graph;
+        this.weight = weight;
+        this.uniformWeight = uniformWeight;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Creates an engine for a graph whose edges all have weight 1
+     * @param graph the graph to be measured
+     * @return an engine answering by breadth-first search
+     */
+    public static <V, E> ClosenessCentrality<V, E> unweighted(AdjacencyListGraph<V, E> graph) {
+        return uniform(graph, 1);
+    }
+
+    /**
+     * Creates an engine for a graph whose edges all have the same weight
+     * @param graph the graph to be measured
+     * @param weight the weight of every edge
+     * @return an engine answering by breadth-first search
+     * @throws IllegalArgumentException if weight is not positive
+     */
+    public static <V, E> ClosenessCentrality<V, E> uniform(AdjacencyListGraph<V, E> graph, int weight)
+            throws IllegalArgumentException {
+        if (weight <= 0) throw new IllegalArgumentException("Uniform weight must be positive");
+        return new ClosenessCentrality<>(graph, e -> weight, weight, weight);
+    }
+
+    /**
+     * Creates an engine for a weighted graph, checking once whether the weights happen to be uniform.
+     * Edges inserted afterwards must keep that property; create a new engine if they may not.
+     * @param graph the graph to be measured
+     * @param weight extracts a non-negative weight from each edge element
+     * @return an engine answering by breadth-first search if all weights are equal and positive, otherwise by Dijkstra's
+     *         algorithm over a bucket queue if the weights are small
+     * @throws IllegalArgumentException if some weight is negative
+     */
+    public static <V, E> ClosenessCentrality<V, E> weighted(AdjacencyListGraph<V, E> graph, ToIntFunction<E> weight)
+            throws IllegalArgumentException {
+        int uniform = -1, max = 0;
+        for (Edge<E> e : graph.edges()) {
+            int w = weight.applyAsInt(e.getElement());
+            if (w < 0) throw new IllegalArgumentException("Negative edge weight");
+            if (uniform == -1) uniform = w;
+            else if (uniform != w) uniform = 0;
+            max = Math.max(max, w);
+        }
+        return new ClosenessCentrality<>(graph, weight, Math.max(uniform, 0), max);
+    }
+
+    /** @return true if queries are answered by breadth-first search */
+    public boolean isUniform() { return uniformWeight > 0; }
+
+    /**
+     * Computes the closeness centrality of a vertex
+     * @param source a Vertex in the graph
+     * @return its closeness and normalized closeness
+     * @throws IllegalArgumentException if source is not in the graph
+     */
+    public Result compute(Vertex<V> source) throws IllegalArgumentException {
+        int s = graph.vertexId(source);
+        try (TraversalContext ctx = TraversalContext.acquire(graph.vertexIdBound())) {
+            return (uniformWeight > 0) ? bfs(s, ctx) : dijkstra(s, ctx);
+        }
+    }
+
+    /** Breadth-first search from vertex id s; hop counts are scaled by the uniform weight */
+    private Result bfs(int s, TraversalContext ctx) {
+        int[] dist = ctx.ints(1);
+        IntRingQueue queue = ctx.frontier();
+        int reached = 1;
+        double sum = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        queue.enqueue(s);
+        while (!queue.isEmpty()) {
+            int u = queue.dequeue();
+            Vertex<V> vert = graph.vertexAt(u);
+            int d = dist[u] + 1;
+            double contribution = 1.0 / ((double) d * uniformWeight);
+            for (Edge<E> e : graph.outgoingEdgeList(vert)) {
+                int v = graph.vertexId(graph.opposite(vert, e));
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = d;
+                    queue.enqueue(v);
+                    reached++;
+                    sum += contribution;
+                }
+            }
+        }
+        return result(sum, reached);
+    }
+
+    /** Dijkstra's algorithm from vertex id s; a marked vertex is settled once it has left the queue */
+    private Result dijkstra(int s, TraversalContext ctx) {
+        int[] dist = ctx.ints(0);
+        IntPriorityQueue pq = ctx.queueFor(maxWeight);
+        double sum = 0;
+        int reached = 0;
+        ctx.mark(s);
+        dist[s] = 0;
+        pq.insert(s, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.removeMin();
+            reached++;
+            if (dist[u] > 0) sum += 1.0 / dist[u];
+            Vertex<V> vert = graph.vertexAt(u);
+            for (Edge<E> e : graph.outgoingEdgeList(vert)) {
+                int v = graph.vertexId(graph.opposite(vert, e));
+                int d = dist[u] + weight.applyAsInt(e.getElement());
+                if (!ctx.isMarked(v)) {
+                    ctx.mark(v);
+                    dist[v] = d;
+                    pq.insert(v, d);
+                } else if (d < dist[v] && pq.contains(v)) {
+                    dist[v] = d;
+                    pq.decreaseKey(v, d);
+                }
+            }
+        }
+        return result(sum, reached);
+    }
+
+    private Result result(double sum, int reached) {
+        int n = graph.numVertices();
+        return new Result(sum, n > 1 ? sum / (n - 1) : 0, reached);
+    }
+}
@@ -0,0 +1,176 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Finds the connectors (articulation points) and bridges of a graph in one linear-time depth-first pass,
+ * using Hopcroft and Tarjan's low-link method.
+ *
+ * The search keeps its own stack of vertex ids instead of recursing, so the depth of the graph is limited only by memory.
+ * Per-vertex state lives in a TraversalContext, so searches over one graph may run concurrently.
+ * A directed graph is searched as if its edges were undirected.
+ */
+public class Connectors {
+    /** Connectors and bridges found by a search */
+    public static class Result {
+        private final int[] connectors, bridges;
+
+        Result(int[] connectors, int[] bridges) {
+            this.connectors = connectors;
+            this.bridges = bridges;
+        }
+
+        /** @return ids of the vertices whose removal disconnects their component, in the order they were confirmed */
+        public int[] connectors() { return connectors; }
+
+        /** @return ids of the edges whose removal disconnects their component */
+        public int[] bridges() { return bridges; }
+    }
+
+    /** Incidence lists of a graph seen through vertex and edge ids */
+    private interface Incidence {
+        /** @return number of edges incident to vertex u */
+        int degree(int u);
+
+        /** @return id of the j-th edge incident to vertex u */
+        int edge(int u, int j);
+
+        /** @return id of the vertex at the other end of the j-th edge incident to vertex u */
+        int neighbor(int u, int j);
+    }
+
+    private Connectors() { }
+
+    /**
+     * Finds the connectors and bridges of an adjacency list graph
+     * @param g the graph to be searched
+     * @return the connectors by vertex id and the bridges by edge id
+     */
+    public static <V, E> Result find(AdjacencyListGraph<V, E> g) {
+        int[] roots = new int[g.numVertices()];
+        int r = 0;
+        for (Vertex<V> v : g.vertices()) roots[r++] = g.vertexId(v);
+        Incidence incidence = new Incidence() {
+            private ArrayList<Edge<E>> out, in;
+            private int cached = -1;
+
+            /** Looks up the incidence lists of u, reusing them while u stays the same */
+            private void load(int u) {
+                if (u == cached) return;
+                Vertex<V> v = g.vertexAt(u);
+                out = g.outgoingEdgeList(v);
+                in = g.isDirected() ? g.incomingEdgeList(v) : null;
+                cached = u;
+            }
+
+            private Edge<E> at(int u, int j) {
+                load(u);
+                return j < out.size() ? out.get(j) : in.get(j - out.size());
+            }
+
+            public int degree(int u) {
+                load(u);
+                return out.size() + (in == null ? 0 : in.size());
+            }
+
+            public int edge(int u, int j) { return g.edgeId(at(u, j)); }
+
+            public int neighbor(int u, int j) { return g.vertexId(g.opposite(g.vertexAt(u), at(u, j))); }
+        };
+        return search(incidence, roots, g.vertexIdBound());
+    }
+
+    /**
+     * Finds the connectors and bridges of a CSR snapshot
+     * @param g the graph to be searched
+     * @return the connectors by vertex id and the bridges by edge id
+     */
+    public static <V, E> Result find(CsrGraph<V, E> g) {
+        int n = g.numVertices();
+        int[] offsets = g.offsets(), neighbors = g.neighbors(), slotEdges = g.slotEdges();
+        int[] inOffsets = g.inOffsets(), inNeighbors = g.inNeighbors(), inSlotEdges = g.inSlotEdges();
+        boolean both = g.isDirected();
+        Incidence incidence = new Incidence() {
+            public int degree(int u) {
+                int d = offsets[u + 1] - offsets[u];
+                return both ? d + inOffsets[u + 1] - inOffsets[u] : d;
+            }
+
+            public int edge(int u, int j) {
+                int d = offsets[u + 1] - offsets[u];
+                return j < d ? slotEdges[offsets[u] + j] : inSlotEdges[inOffsets[u] + j - d];
+            }
+
+            public int neighbor(int u, int j) {
+                int d = offsets[u + 1] - offsets[u];
+                return j < d ? neighbors[offsets[u] + j] : inNeighbors[inOffsets[u] + j - d];
+            }
+        };
+        int[] roots = new int[n];
+        for (int i = 0; i < n; i++) roots[i] = i;
+        return search(incidence, roots, n);
+    }
+
+    /**
+     * Iterative low-link search from every unvisited root
+     * @param g incidence lists by id
+     * @param roots ids of every vertex, in the order they are tried as roots
+     * @param bound one more than the largest vertex id
+     */
+    private static Result search(Incidence g, int[] roots, int bound) {
+        int[] connectors = new int[16], bridges = new int[16];
+        int connectorCount = 0, bridgeCount = 0;
+        try (TraversalContext ctx = TraversalContext.acquire(bound)) {
+            int[] disc = ctx.ints(0), low = ctx.ints(1), parentEdge = ctx.ints(2), cursor = ctx.ints(3),
+                    stack = ctx.ints(4), isConnector = ctx.ints(5);
+            int time = 0;
+            for (int root : roots) {
+                if (ctx.isMarked(root)) continue;
+                ctx.mark(root);
+                disc[root] = low[root] = time++;
+                parentEdge[root] = -1;
+                cursor[root] = 0;
+                isConnector[root] = 0;
+                int sp = 0, rootChildren = 0;
+                stack[sp++] = root;
+                while (sp > 0) {
+                    int u = stack[sp - 1];
+                    if (cursor[u] < g.degree(u)) {
+                        int j = cursor[u]++;
+                        int e = g.edge(u, j);
+                        if (e == parentEdge[u]) continue;       // the tree edge back to the parent is not a back edge
+                        int w = g.neighbor(u, j);
+                        if (!ctx.isMarked(w)) {
+                            ctx.mark(w);
+                            disc[w] = low[w] = time++;
+                            parentEdge[w] = e;
+                            cursor[w] = 0;
+                            isConnector[w] = 0;
+                            stack[sp++] = w;
+                            if (u == root) rootChildren++;
+                        } else if (disc[w] < low[u]) low[u] = disc[w];
+                    } else {
+                        // u is finished; pass its low value up to its parent
+                        sp--;
+                        if (sp == 0) break;
+                        int p = stack[sp - 1];
+                        if (low[u] < low[p]) low[p] = low[u];
+                        if (low[u] > disc[p]) {
+                            if (bridgeCount == bridges.length) bridges = Arrays.copyOf(bridges, 2 * bridgeCount);
+                            bridges[bridgeCount++] = parentEdge[u];
+                        }
+                        if (p != root && low[u] >= disc[p] && isConnector[p] == 0) {
+                            isConnector[p] = 1;
+                            if (connectorCount == connectors.length) connectors = Arrays.copyOf(connectors, 2 * connectorCount);
+                            connectors[connectorCount++] = p;
+                        }
+                    }
+                }
+                if (rootChildren > 1) {
+                    if (connectorCount == connectors.length) connectors = Arrays.copyOf(connectors, 2 * connectorCount);
+                    connectors[connectorCount++] = root;
+                }
+            }
+        }
+        return new Result(Arrays.copyOf(connectors, connectorCount), Arrays.copyOf(bridges, bridgeCount));
+    }
+}
@@ -0,0 +1,450 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Immutable compressed-sparse-row snapshot of a graph.
+ * Vertices are numbered 0..n-1 and the neighbors of vertex i are stored in
+ * neighbors[offsets[i]] .. neighbors[offsets[i+1] - 1], sorted by neighbor id.
+ * The edge reached through each of those slots is recorded in the parallel slotEdges array.
+ * An undirected edge appears once in the row of each of its endpoints.
+ */
+public class CsrGraph<V, E> implements Graph<V, E> {
+    // Instance variables
+    private final boolean isDirected;
+    private final Vertex<V>[] vertexList;
+    private final Vertex<V>[] sourceVertices;     // vertices of the graph the snapshot was taken from
+    private final Graph<V, E> source;               // graph the snapshot was taken from
+    private final int[] sourceIndex;                // row of each source vertex, by source vertex id
+    private final int[] offsets, neighbors, slotEdges;
+    private final int[] inOffsets, inNeighbors, inSlotEdges;    // same arrays as outgoing if undirected
+    private final E[] edgeElements;
+    private final int[] edgeEndpoints;              // endpoints of edge k at 2k and 2k+1
+
+    /** A vertex of the snapshot, identified by its row number */
+    private class CsrVertex implements Vertex<V> {
+        private final int id;
+        private final V element;
+
+        public CsrVertex(int id, V element) {
+            this.id = id;
+            this.element = element;
+        }
+
+        /** @return element stored at vertex */
+        public V getElement() { return element; }
+
+        public String toString() { return String.valueOf(element); }
+    }
+
+    /** An edge of the snapshot, created on demand and identified by its edge number */
+    private class CsrEdge implements Edge<E> {
+        private final int id;
+
+        public CsrEdge(int id) { this.id = id; }
+
+        /** @return element stored at edge */
+        public E getElement() { return edgeElements[id]; }
+
+        public boolean equals(Object o) {
+            return (o instanceof CsrGraph.CsrEdge && ((CsrEdge) o).id == id && ((CsrEdge) o).owner() == CsrGraph.this);
+        }
+
+        public int hashCode() { return id; }
+
+        private CsrGraph<V, E> owner() { return CsrGraph.this; }
+    }
+
+    // Constructors
+
+    /**
+     * Builds a snapshot of the given graph
+     * @param g the graph to copy
+     */
+    CsrGraph(AdjacencyListGraph<V, E> g) {
+        source = g;
+        isDirected = g.isDirected();
+        int n = g.numVertices(), m = g.numEdges();
+        vertexList = (Vertex<V>[]) new Vertex[n];
+        sourceVertices = (Vertex<V>[]) new Vertex[n];
+        sourceIndex = new int[g.vertexIdBound()];
+        Arrays.fill(sourceIndex, -1);
+        int i = 0;
+        for (Vertex<V> v : g.vertices()) {
+            vertexList[i] = new CsrVertex(i, v.getElement());
+            sourceVertices[i] = v;
+            sourceIndex[g.vertexId(v)] = i++;
+        }
+
+        edgeElements = (E[]) new Object[m];
+        edgeEndpoints = new int[2 * m];
+        int[] outCount = new int[n + 1], inCount = new int[n + 1];
+        int k = 0;
+        for (Edge<E> e : g.edges()) {
+            Vertex<V>[] ends = g.endVertices(e);
+            int u = sourceIndex[g.vertexId(ends[0])], v = sourceIndex[g.vertexId(ends[1])];
+            edgeElements[k] = e.getElement();
+            edgeEndpoints[2 * k] = u;
+            edgeEndpoints[2 * k + 1] = v;
+            outCount[u]++;
+            if (isDirected) inCount[v]++;
+            else outCount[v]++;
+            k++;
+        }
+
+        // scatter edges into unsorted rows, then transpose: walking rows in order leaves every filled row sorted
+        int slots = isDirected ? m : 2 * m;
+        int[] rowOffsets = prefixSums(outCount);
+        int[] rowNeighbors = new int[slots], rowEdges = new int[slots];
+        int[] fill = Arrays.copyOf(rowOffsets, n);
+        for (k = 0; k < m; k++) {
+            int u = edgeEndpoints[2 * k], v = edgeEndpoints[2 * k + 1];
+            rowNeighbors[fill[u]] = v;
+            rowEdges[fill[u]++] = k;
+            if (!isDirected) {
+                rowNeighbors[fill[v]] = u;
+                rowEdges[fill[v]++] = k;
+            }
+        }
+        offsets = rowOffsets;
+        neighbors = new int[slots];
+        slotEdges = new int[slots];
+        if (isDirected) {
+            inOffsets = prefixSums(inCount);
+            inNeighbors = new int[m];
+            inSlotEdges = new int[m];
+            transpose(rowOffsets, rowNeighbors, rowEdges, inOffsets, inNeighbors, inSlotEdges);
+            transpose(inOffsets, inNeighbors, inSlotEdges, offsets, neighbors, slotEdges);
+        } else {
+            transpose(rowOffsets, rowNeighbors, rowEdges, offsets, neighbors, slotEdges);
+            inOffsets = offsets;
+            inNeighbors = neighbors;
+            inSlotEdges = slotEdges;
+        }
+    }
+
+    // private utilities
+
+    /** Turns per-vertex counts (with one spare trailing slot) into row offsets in place */
+    private static int[] prefixSums(int[] counts) {
+        int sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            int c = counts[i];
+            counts[i] = sum;
+            sum += c;
+        }
+        return counts;
+    }
+
+    /**
+     * Fills the destination rows with the transpose of the source rows.
+     * Source rows are walked in increasing order, so every destination row comes out sorted.
+     */
+    private static void transpose(int[] srcOffs, int[] srcNbrs, int[] srcIds, int[] dstOffs, int[] dstNbrs, int[] dstIds) {
+        int[] fill = Arrays.copyOf(dstOffs, dstOffs.length - 1);
+        for (int r = 0; r + 1 < srcOffs.length; r++) {
+            for (int s = srcOffs[r]; s < srcOffs[r + 1]; s++) {
+                int c = srcNbrs[s];
+                dstNbrs[fill[c]] = r;
+                dstIds[fill[c]++] = srcIds[s];
+            }
+        }
+    }
+
+    /**
+     * Checks that a given Vertex belongs to this snapshot
+     * @param v a Vertex of the snapshot
+     * @return the row number of v
+     * @throws IllegalArgumentException if v is not a vertex of this snapshot
+     */
+    private int validate(Vertex<V> v) throws IllegalArgumentException {
+        if (!(v instanceof CsrGraph.CsrVertex)) throw new IllegalArgumentException("Invalid vertex");
+        CsrVertex vert = (CsrVertex) v;
+        if (vert.id >= vertexList.length || vertexList[vert.id] != vert) throw new IllegalArgumentException("Invalid vertex");
+        return vert.id;
+    }
+
+    /**
+     * Checks that a given Edge belongs to this snapshot
+     * @param e an Edge of the snapshot
+     * @return the edge number of e
+     * @throws IllegalArgumentException if e is not an edge of this snapshot
+     */
+    private int validate(Edge<E> e) throws IllegalArgumentException {
+        if (!(e instanceof CsrGraph.CsrEdge) || ((CsrEdge) e).owner() != this) throw new IllegalArgumentException("Invalid edge");
+        return ((CsrEdge) e).id;
+    }
+
+    /** Returns the edges in the given slot range as an iterable of Positions */
+    private Iterable<Position<Edge<E>>> slotPositions(int from, int to, int[] ids) {
+        ArrayList<Position<Edge<E>>> answer = new ArrayList<>(to - from);
+        for (int s = from; s < to; s++) {
+            Edge<E> edge = new CsrEdge(ids[s]);
+            answer.add(() -> edge);
+        }
+        return answer;
+    }
+
+    // Row level accessors
+
+    /** @return true if the snapshot was taken from a directed graph */
+    public boolean isDirected() { return isDirected; }
+
+    /** @return the vertex of the original graph that row id was copied from */
+    public Vertex<V> sourceVertex(int id) { return sourceVertices[id]; }
+
+    /**
+     * Returns the row number of a vertex of the graph the snapshot was taken from
+     * @param original a Vertex of the original graph
+     * @return its row number, or -1 if the vertex was not part of the snapshot
+     * @throws IllegalArgumentException if original is no longer in the original graph
+     */
+    public int sourceId(Vertex<V> original) {
+        int id = source.vertexId(original);
+        if (id >= sourceIndex.length || sourceIndex[id] < 0 || sourceVertices[sourceIndex[id]] != original) return -1;
+        return sourceIndex[id];
+    }
+
+    /** @return the row offsets; neighbors of i occupy [offsets[i], offsets[i+1]) */
+    public int[] offsets() { return offsets; }
+
+    /** @return the neighbor array, parallel to slotEdges() */
+    public int[] neighbors() { return neighbors; }
+
+    /** @return the edge number reached through each neighbor slot */
+    public int[] slotEdges() { return slotEdges; }
+
+    /** @return the element of the edge reached through neighbor slot s */
+    public E slotElement(int s) { return edgeElements[slotEdges[s]]; }
+
+    /** @return the incoming row offsets, the same array as offsets() if undirected */
+    public int[] inOffsets() { return inOffsets; }
+
+    /** @return the incoming neighbor array, the same array as neighbors() if undirected */
+    public int[] inNeighbors() { return inNeighbors; }
+
+    /** @return the edge number reached through each incoming neighbor slot */
+    public int[] inSlotEdges() { return inSlotEdges; }
+
+    /** @return row number of the origin of edge k */
+    public int edgeOrigin(int k) { return edgeEndpoints[2 * k]; }
+
+    /** @return row number of the destination of edge k */
+    public int edgeDestination(int k) { return edgeEndpoints[2 * k + 1]; }
+
+    /** @return element stored at edge k */
+    public E edgeElement(int k) { return edgeElements[k]; }
+
+    // Graph methods
+
+    /** @return number of vertices in the snapshot */
+    public int numVertices() { return vertexList.length; }
+
+    /** @return an iterable collection of all vertices, in row order */
+    public Iterable<Vertex<V>> vertices() { return Arrays.asList(vertexList); }
+
+    /** @return number of edges in the snapshot */
+    public int numEdges() { return edgeElements.length; }
+
+    /** @return the row number of the given snapshot Vertex */
+    public int vertexId(Vertex<V> v) throws IllegalArgumentException { return validate(v); }
+
+    /** @return the snapshot Vertex with given row number, or null if out of range */
+    public Vertex<V> vertexAt(int id) { return (id < 0 || id >= vertexList.length) ? null : vertexList[id]; }
+
+    /** @return the number of rows */
+    public int vertexIdBound() { return vertexList.length; }
+
+    /** @return the edge number of the given snapshot Edge */
+    public int edgeId(Edge<E> e) throws IllegalArgumentException { return validate(e); }
+
+    /** @return the edge with given edge number, or null if out of range */
+    public Edge<E> edgeAt(int id) { return (id < 0 || id >= edgeElements.length) ? null : new CsrEdge(id); }
+
+    /** @return the number of edges */
+    public int edgeIdBound() { return edgeElements.length; }
+
+    /** @return an iterable collection of all edges, in edge number order */
+    public Iterable<Edge<E>> edges() {
+        return () -> new Iterator<Edge<E>>() {
+            private int k = 0;
+            public boolean hasNext() { return k < edgeElements.length; }
+            public Edge<E> next() {
+                if (k == edgeElements.length) throw new NoSuchElementException("nothing left");
+                return new CsrEdge(k++);
+            }
+        };
+    }
+
+    /**
+     * Returns the edge from u to v using a binary search of u's row
+     * @param u a Vertex in the snapshot
+     * @param v a Vertex in the snapshot
+     * @return edge from u to v, or null if they are not adjacent
+     * @throws IllegalArgumentException if u or v are not vertices of this snapshot
+     */
+    public Edge<E> getEdge(Vertex<V> u, Vertex<V> v) throws IllegalArgumentException {
+        int from = validate(u), to = validate(v);
+        int s = Arrays.binarySearch(neighbors, offsets[from], offsets[from + 1], to);
+        return s < 0 ? null : new CsrEdge(slotEdges[s]);
+    }
+
+    /**
+     * Returns the end vertices of a given Edge
+     * @param e an Edge in the snapshot
+     * @return array of length 2 holding the origin and destination of e
+     * @throws IllegalArgumentException if e is not an edge of this snapshot
+     */
+    public Vertex<V>[] endVertices(Edge<E> e) throws IllegalArgumentException {
+        int k = validate(e);
+        return (Vertex<V>[]) new Vertex[]{vertexList[edgeEndpoints[2 * k]], vertexList[edgeEndpoints[2 * k + 1]]};
+    }
+
+    /**
+     * Returns the Vertex opposite to v along e
+     * @param v a Vertex in the snapshot
+     * @param e an Edge incident to v
+     * @return the other endpoint of e
+     * @throws IllegalArgumentException if v is not incident to e
+     */
+    public Vertex<V> opposite(Vertex<V> v, Edge<E> e) throws IllegalArgumentException {
+        int id = validate(v), k = validate(e);
+        if (edgeEndpoints[2 * k] == id) return vertexList[edgeEndpoints[2 * k + 1]];
+        else if (edgeEndpoints[2 * k + 1] == id) return vertexList[edgeEndpoints[2 * k]];
+        else throw new IllegalArgumentException("v is not incident to this edge");
+    }
+
+    /** @return number of edges leaving v */
+    public int outDegree(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return offsets[id + 1] - offsets[id];
+    }
+
+    /** @return number of edges arriving at v */
+    public int inDegree(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    /** @return an iterable collection of edges leaving v */
+    public Iterable<Position<Edge<E>>> outgoingEdges(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return slotPositions(offsets[id], offsets[id + 1], slotEdges);
+    }
+
+    /** @return an iterable collection of edges arriving at v */
+    public Iterable<Position<Edge<E>>> incomingEdges(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return slotPositions(inOffsets[id], inOffsets[id + 1], inSlotEdges);
+    }
+
+    /** Not supported, the snapshot is read-only */
+    public Vertex<V> insertVertex(V element) { throw new UnsupportedOperationException("snapshot is read-only"); }
+
+    /** Not supported, the snapshot is read-only */
+    public Edge<E> insertEdge(Vertex<V> u, Vertex<V> v, E element) { throw new UnsupportedOperationException("snapshot is read-only"); }
+
+    /** Not supported, the snapshot is read-only */
+    public void removeVertex(Vertex<V> v) { throw new UnsupportedOperationException("snapshot is read-only"); }
+
+    /** Not supported, the snapshot is read-only */
+    public void removeEdge(Edge<E> e) { throw new UnsupportedOperationException("snapshot is read-only"); }
+
+    // CSR-native algorithms
+
+    /**
+     * Breadth-first search following outgoing edges
+     * @param source the row number at which to begin the search
+     * @return hop count from source to every vertex, Integer.MAX_VALUE if unreachable
+     */
+    public int[] bfs(int source) {
+        int n = vertexList.length;
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        IntRingQueue queue = new IntRingQueue(n);    // room for every vertex, so it never grows
+        dist[source] = 0;
+        queue.enqueue(source);
+        while (!queue.isEmpty()) {
+            int u = queue.dequeue();
+            for (int s = offsets[u]; s < offsets[u + 1]; s++) {
+                int v = neighbors[s];
+                if (dist[v] == Integer.MAX_VALUE) {
+                    dist[v] = dist[u] + 1;
+                    queue.enqueue(v);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Depth-first search following outgoing edges, using an explicit stack instead of recursion
+     * @param source the row number at which to begin the search
+     * @return the DFS tree as a parent array: source maps to itself, unreached vertices to -1
+     */
+    public int[] dfs(int source) {
+        int n = vertexList.length;
+        int[] parent = new int[n];
+        Arrays.fill(parent, -1);
+        int[] stack = new int[n], cursor = new int[n];     // cursor: next slot of each stacked vertex to examine
+        int top = 0;
+        parent[source] = source;
+        stack[top] = source;
+        cursor[top++] = offsets[source];
+        while (top > 0) {
+            int u = stack[top - 1];
+            int s = cursor[top - 1];
+            if (s == offsets[u + 1]) {
+                top--;                                      // every neighbor of u explored
+                continue;
+            }
+            cursor[top - 1] = s + 1;
+            int v = neighbors[s];
+            if (parent[v] == -1) {
+                parent[v] = u;
+                stack[top] = v;
+                cursor[top++] = offsets[v];
+            }
+        }
+        return parent;
+    }
+
+    /**
+     * Dijkstra's algorithm following outgoing edges, over a bucket queue when the weights are small
+     * and over an indexed heap otherwise
+     * @param source the row number at which to begin the search
+     * @param weight extracts a non-negative weight from each edge element
+     * @return shortest distance from source to every vertex, Integer.MAX_VALUE if unreachable
+     * @throws IllegalArgumentException if some weight is negative
+     */
+    public int[] shortestPathLengths(int source, ToIntFunction<E> weight) throws IllegalArgumentException {
+        int n = vertexList.length;
+        int maxWeight = 0;
+        for (E element : edgeElements) {
+            int w = weight.applyAsInt(element);
+            if (w < 0) throw new IllegalArgumentException("Negative edge weight");
+            maxWeight = Math.max(maxWeight, w);
+        }
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        boolean[] cloud = new boolean[n];
+        IntPriorityQueue pq = IntBucketQueue.forMaxWeight(n, maxWeight);
+        dist[source] = 0;
+        pq.insert(source, 0);
+        while (!pq.isEmpty()) {
+            int u = pq.removeMin();
+            cloud[u] = true;
+            for (int s = offsets[u]; s < offsets[u + 1]; s++) {
+                int v = neighbors[s];
+                int d = dist[u] + weight.applyAsInt(edgeElements[slotEdges[s]]);
+                if (!cloud[v] && d < dist[v]) {
+                    dist[v] = d;
+                    pq.insertOrDecrease(v, d);
+                }
+            }
+        }
+        return dist;
+    }
+}
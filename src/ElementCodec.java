@@ -0,0 +1,22 @@
+import java.io.IOException;
+
+/**
+ * Converts the elements stored at vertices or edges to and from the binary snapshot format
+ */
+public interface ElementCodec<T> {
+    /**
+     * Writes an element to the snapshot
+     * @param element the element to be written, possibly null
+     * @param out the snapshot being written
+     * @throws IOException if the snapshot cannot be written
+     */
+    void write(T element, GraphSnapshot.Output out) throws IOException;
+
+    /**
+     * Reads back an element written by write
+     * @param in the snapshot being read
+     * @return the element read
+     * @throws IOException if the snapshot cannot be read or is malformed
+     */
+    T read(GraphSnapshot.Input in) throws IOException;
+}
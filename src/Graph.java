@@ -11,6 +11,47 @@ public interface Graph<V, E> {
     /** Returns iteration of all edges of the graph */
     Iterable<Edge<E>> edges();
 
+    /**
+     * Returns the dense integer id of Vertex v. Ids are stable while v remains in the Graph;
+     * the id of a removed vertex may be given to a later vertex.
+     *
+     * @param v a Vertex in the Graph
+     * @return the id of v, between 0 and vertexIdBound() - 1
+     * @throws IllegalArgumentException if v is not a valid Vertex in the Graph
+     */
+    int vertexId(Vertex<V> v) throws IllegalArgumentException;
+
+    /**
+     * Returns the Vertex with the given id
+     *
+     * @param id a vertex id
+     * @return the Vertex with that id, or null if no vertex currently has it
+     */
+    Vertex<V> vertexAt(int id);
+
+    /** Returns one more than the largest vertex id in use, so arrays of that length can be indexed by vertex id */
+    int vertexIdBound();
+
+    /**
+     * Returns the dense integer id of Edge e, with the same guarantees as vertex ids
+     *
+     * @param e an Edge in the Graph
+     * @return the id of e, between 0 and edgeIdBound() - 1
+     * @throws IllegalArgumentException if e is not a valid Edge in the Graph
+     */
+    int edgeId(Edge<E> e) throws IllegalArgumentException;
+
+    /**
+     * Returns the Edge with the given id
+     *
+     * @param id an edge id
+     * @return the Edge with that id, or null if no edge currently has it
+     */
+    Edge<E> edgeAt(int id);
+
+    /** Returns one more than the largest edge id in use, so arrays of that length can be indexed by edge id */
+    int edgeIdBound();
+
     /**
      * Returns edge from Vertex u to Vertex v if exists; otherwise return null
      *
@@ -0,0 +1,273 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Loads graphs from the tab separated student format: a header line, then one row per vertex
+ * holding its id in the first column, six descriptive columns and the ids of its friends in the remaining columns.
+ */
+public class GraphLoader {
+    /** Column holding the id of the row's vertex */
+    public static final int ID_COLUMN = 0;
+    /** First column holding a friend id */
+    public static final int FIRST_FRIEND_COLUMN = 7;
+    /** Smallest and largest number of bytes parsed by one task of the parallel loader */
+    private static final long MIN_CHUNK = 1 << 20, MAX_CHUNK = 1 << 28;
+
+    /** Rows of one chunk of the file, parsed by a single task */
+    private static class ParsedChunk<V> {
+        private final ArrayList<V> elements = new ArrayList<>();
+        private long[] ids = new long[64];
+        private long[] friendIds = new long[256];
+        private int[] friendEnds = new int[64];     // friends of row r are friendIds[friendEnds[r-1] .. friendEnds[r]-1]
+        private int rows = 0, friends = 0;
+
+        /** Appends the row currently held by the given view */
+        private void add(TsvRow row, V element) {
+            if (rows == ids.length) {
+                ids = Arrays.copyOf(ids, 2 * rows);
+                friendEnds = Arrays.copyOf(friendEnds, 2 * rows);
+            }
+            ids[rows] = row.longField(ID_COLUMN);
+            for (int i = FIRST_FRIEND_COLUMN; i < row.fieldCount(); i++) {
+                if (row.isEmpty(i)) continue;
+                if (friends == friendIds.length) friendIds = Arrays.copyOf(friendIds, 2 * friends);
+                friendIds[friends++] = row.longField(i);
+            }
+            friendEnds[rows++] = friends;
+            elements.add(element);
+        }
+    }
+
+    /** Summary of a completed load */
+    public static class LoadReport {
+        private final long rows, edges, duplicates, unresolved, nanos;
+
+        public LoadReport(long rows, long edges, long duplicates, long unresolved, long nanos) {
+            this.rows = rows;
+            this.edges = edges;
+            this.duplicates = duplicates;
+            this.unresolved = unresolved;
+            this.nanos = nanos;
+        }
+
+        /** @return number of vertex rows read */
+        public long getRows() { return rows; }
+
+        /** @return number of edges inserted */
+        public long getEdges() { return edges; }
+
+        /** @return number of friend references skipped because the edge already existed */
+        public long getDuplicates() { return duplicates; }
+
+        /** @return number of friend references to ids that never appeared as a row */
+        public long getUnresolved() { return unresolved; }
+
+        /** @return elapsed load time in nanoseconds */
+        public long getNanos() { return nanos; }
+
+        /** @return rows loaded per second of elapsed time */
+        public double rowsPerSecond() { return nanos == 0 ? 0 : rows * 1e9 / nanos; }
+
+        public String toString() {
+            return String.format("Loaded %d rows and %d edges in %.1f ms (%.0f rows/sec, %d duplicate and %d unresolved friend references)",
+                    rows, edges, nanos / 1e6, rowsPerSecond(), duplicates, unresolved);
+        }
+    }
+
+    private GraphLoader() { }
+
+    /**
+     * Reads a student file in a single pass and adds its rows and friendships to the graph.
+     * Friend ids are resolved through a hash index; references to rows further down the file are
+     * buffered until that row is read, and repeated friendships are skipped without inserting them.
+     * @param path the file to read
+     * @param graph the graph to which vertices and edges are added
+     * @param rowParser builds a vertex element from the fields of one row
+     * @param edgeFactory supplies the element stored at each new edge
+     * @return a summary of the load
+     * @throws IOException if the file cannot be read
+     */
+    public static <V, E> LoadReport loadTsv(Path path, AdjacencyListGraph<V, E> graph,
+                                            Function<String[], V> rowParser, Supplier<E> edgeFactory) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0, edges = 0, duplicates = 0, unresolved = 0;
+        Map<String, Vertex<V>> byId = new RobinHoodHashMap<>();
+        // friend id not read yet -> vertices that named it
+        Map<String, ArrayList<Vertex<V>>> pending = new RobinHoodHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(path), StandardCharsets.UTF_8))) {
+            reader.readLine();  // skip header line
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] fields = line.split("\t");
+                Vertex<V> v = graph.insertVertex(rowParser.apply(fields));
+                rows++;
+                String id = fields[ID_COLUMN];
+                byId.put(id, v);
+                ArrayList<Vertex<V>> waiting = pending.remove(id);
+                if (waiting != null) {
+                    for (Vertex<V> u : waiting) {
+                        if (connect(graph, u, v, edgeFactory)) edges++;
+                        else duplicates++;
+                    }
+                }
+                for (int i = FIRST_FRIEND_COLUMN; i < fields.length; i++) {
+                    String friendId = fields[i];
+                    if (friendId.isEmpty()) continue;
+                    Vertex<V> friend = byId.get(friendId);
+                    if (friend == null) {
+                        ArrayList<Vertex<V>> list = pending.get(friendId);
+                        if (list == null) pending.put(friendId, list = new ArrayList<>(2));
+                        list.add(v);
+                    } else if (connect(graph, v, friend, edgeFactory)) edges++;
+                    else duplicates++;
+                }
+            }
+        }
+        for (ArrayList<Vertex<V>> waiting : pending.values()) unresolved += waiting.size();
+        return new LoadReport(rows, edges, duplicates, unresolved, System.nanoTime() - start);
+    }
+
+    /**
+     * Loads a student file by memory-mapping it and parsing line aligned chunks in parallel.
+     * Fields are read directly from the mapped bytes; ids must be decimal integers.
+     * Vertices of each chunk are merged into the graph as soon as the chunk is parsed,
+     * and edges are merged chunk by chunk once every vertex is known.
+     * @param path the file to read
+     * @param graph the graph to which vertices and edges are added
+     * @param rowDecoder builds a vertex element from one row; called concurrently, so it must not share mutable state
+     * @param edgeFactory supplies the element stored at each new edge
+     * @param pool the pool on which chunks are parsed
+     * @return a summary of the load
+     * @throws IOException if the file cannot be read
+     * @throws NumberFormatException if an id is not a decimal integer
+     */
+    public static <V, E> LoadReport loadTsvParallel(Path path, AdjacencyListGraph<V, E> graph, Function<TsvRow, V> rowDecoder,
+                                                    Supplier<E> edgeFactory, ForkJoinPool pool) throws IOException {
+        long start = System.nanoTime();
+        long rows = 0, edges = 0, duplicates = 0, unresolved = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel, pool.getParallelism());
+            ArrayList<ForkJoinTask<ParsedChunk<V>>> tasks = new ArrayList<>();
+            for (int c = 0; c + 1 < bounds.length; c++) {
+                long from = bounds[c], to = bounds[c + 1];
+                tasks.add(pool.submit(() -> parseChunk(channel, from, to, rowDecoder)));
+            }
+
+            // merge vertices batch by batch while later chunks are still being parsed
+            LongObjectMap<Vertex<V>> byId = new LongObjectMap<>();
+            ArrayList<Vertex<V>[]> chunkVertices = new ArrayList<>();
+            for (ForkJoinTask<ParsedChunk<V>> task : tasks) {
+                ParsedChunk<V> chunk = join(task);
+                Vertex<V>[] inserted = (Vertex<V>[]) new Vertex[chunk.rows];
+                for (int r = 0; r < chunk.rows; r++) {
+                    inserted[r] = graph.insertVertex(chunk.elements.get(r));
+                    byId.putLong(chunk.ids[r], inserted[r]);
+                }
+                chunk.elements.clear();      // elements are now owned by the graph
+                chunkVertices.add(inserted);
+                rows += chunk.rows;
+            }
+
+            for (int c = 0; c < tasks.size(); c++) {
+                ParsedChunk<V> chunk = join(tasks.get(c));
+                Vertex<V>[] inserted = chunkVertices.get(c);
+                for (int r = 0, f = 0; r < chunk.rows; r++) {
+                    for (; f < chunk.friendEnds[r]; f++) {
+                        Vertex<V> friend = byId.getLong(chunk.friendIds[f]);
+                        if (friend == null) unresolved++;
+                        else if (connect(graph, inserted[r], friend, edgeFactory)) edges++;
+                        else duplicates++;
+                    }
+                }
+            }
+        }
+        return new LoadReport(rows, edges, duplicates, unresolved, System.nanoTime() - start);
+    }
+
+    /**
+     * Splits the file into chunks that begin at line starts, about parallelism * 4 of them
+     * @return offsets where chunks begin, followed by the file size
+     */
+    private static long[] chunkBounds(FileChannel channel, int parallelism) throws IOException {
+        long size = channel.size();
+        long chunk = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, size / (4L * parallelism) + 1));
+        long[] bounds = new long[(int) (size / chunk) + 2];
+        int count = 0;
+        bounds[count++] = 0;
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        long next = chunk;
+        while (next < size) {
+            long lineStart = nextLineStart(channel, next, probe);
+            if (lineStart >= size) break;
+            bounds[count++] = lineStart;
+            next = Math.max(lineStart, next) + chunk;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /** @return offset just past the first newline at or after pos, or the file size if there is none */
+    private static long nextLineStart(FileChannel channel, long pos, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, pos);
+            if (read <= 0) return channel.size();
+            for (int j = 0; j < read; j++) if (probe.get(j) == '\n') return pos + j + 1;
+            pos += read;
+        }
+    }
+
+    /** Maps and parses the rows between two line aligned offsets; the header line is skipped in the first chunk */
+    private static <V> ParsedChunk<V> parseChunk(FileChannel channel, long from, long to, Function<TsvRow, V> rowDecoder) {
+        try {
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            TsvRow row = new TsvRow(buf);
+            ParsedChunk<V> chunk = new ParsedChunk<>();
+            int limit = buf.limit();
+            int pos = (from == 0) ? row.parse(0, limit) : 0;    // skip header line
+            while (pos < limit) {
+                pos = row.parse(pos, limit);
+                if (row.fieldCount() > 0 && !row.isEmpty(ID_COLUMN)) chunk.add(row, rowDecoder.apply(row));
+            }
+            return chunk;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Waits for a parse task, passing its I/O failure on as an IOException */
+    private static <V> ParsedChunk<V> join(ForkJoinTask<ParsedChunk<V>> task) throws IOException {
+        try {
+            return task.join();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Inserts an edge from u to v unless one already exists or u and v are the same vertex
+     * @return true if an edge was inserted
+     */
+    private static <V, E> boolean connect(AdjacencyListGraph<V, E> graph, Vertex<V> u, Vertex<V> v, Supplier<E> edgeFactory) {
+        if (u == v || graph.getEdge(u, v) != null) return false;
+        graph.insertEdge(u, v, edgeFactory.get());
+        return true;
+    }
+}
@@ -0,0 +1,335 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned, checksummed binary snapshot of an AdjacencyListGraph.
+ *
+ * Layout (big-endian): magic, version, flags, vertex id bound, vertex count, edge count;
+ * each vertex as its id followed by its element; the vertex id free-list;
+ * CSR adjacency over vertices in file order (n + 1 offsets, then the index of every edge's destination);
+ * the element of every edge in the same order; finally a CRC32C of everything before it.
+ * Each edge is stored once, in the row of its origin.
+ */
+public class GraphSnapshot {
+    /** "ALGS" */
+    public static final int MAGIC = 0x414C4753;
+    public static final int VERSION = 1;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int BUFFER_SIZE = 4 << 20;
+    private static final int TRAILER_SIZE = 8;
+
+    /** Buffered writer of snapshot data over a file channel, checksumming everything written */
+    public static class Output {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buf;
+        private final CRC32C crc = new CRC32C();
+
+        Output(FileChannel channel) { this(channel, BUFFER_SIZE); }
+
+        /** Creates an output over any channel, buffering up to the given number of bytes between writes */
+        Output(WritableByteChannel channel, int bufferSize) {
+            this.channel = channel;
+            buf = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        /** Makes room for at least n more bytes */
+        private void ensure(int n) throws IOException { if (buf.remaining() < n) flush(); }
+
+        public void writeByte(int b) throws IOException {
+            ensure(1);
+            buf.put((byte) b);
+        }
+
+        public void writeInt(int v) throws IOException {
+            ensure(4);
+            buf.putInt(v);
+        }
+
+        public void writeLong(long v) throws IOException {
+            ensure(8);
+            buf.putLong(v);
+        }
+
+        public void writeDouble(double v) throws IOException {
+            ensure(8);
+            buf.putDouble(v);
+        }
+
+        /** Writes the bytes of the array, without their length */
+        public void writeBytes(byte[] bytes) throws IOException { writeBytes(bytes, 0, bytes.length); }
+
+        /** Writes len bytes of the array starting at index off, without their length */
+        public void writeBytes(byte[] bytes, int off, int len) throws IOException {
+            for (int end = off + len; off < end; ) {
+                if (!buf.hasRemaining()) flush();
+                int n = Math.min(buf.remaining(), end - off);
+                buf.put(bytes, off, n);
+                off += n;
+            }
+        }
+
+        /** Writes a string as its UTF-8 length and bytes; null is written as length -1 */
+        public void writeString(String s) throws IOException {
+            if (s == null) {
+                writeInt(-1);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeInt(bytes.length);
+            writeBytes(bytes);
+        }
+
+        /** Writes out everything buffered so far */
+        void flush() throws IOException {
+            buf.flip();
+            crc.update(buf.duplicate());
+            while (buf.hasRemaining()) channel.write(buf);
+            buf.clear();
+        }
+
+        /** @return checksum of everything written so far, once flushed */
+        long checksum() { return crc.getValue(); }
+    }
+
+    /** Buffered reader of snapshot data over a file channel, checksumming everything read before the trailer */
+    public static class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buf;
+        private final CRC32C crc = new CRC32C();
+        private final long bodyEnd;         // offset of the trailer
+        private long filePos = 0;           // offset of the next byte to be read into buf
+
+        Input(FileChannel channel, long bodyEnd) {
+            this.channel = channel;
+            this.bodyEnd = bodyEnd;
+            buf = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buf.flip();                     // start empty
+        }
+
+        /** Creates an input over bytes already in memory, from the buffer's position to its limit; nothing is checksummed */
+        Input(ByteBuffer data) {
+            channel = null;
+            buf = data.slice();
+            bodyEnd = filePos = buf.limit();
+        }
+
+        /** Makes at least n bytes available in the buffer */
+        private void ensure(int n) throws IOException {
+            if (buf.remaining() >= n) return;
+            if (channel == null) throw new IOException("Snapshot is truncated");
+            buf.compact();
+            while (buf.position() < n) {
+                int start = buf.position();
+                int read = channel.read(buf, filePos);
+                if (read <= 0) throw new IOException("Snapshot is truncated");
+                // checksum only the part of what was read that lies before the trailer
+                long inBody = Math.min(read, Math.max(0, bodyEnd - filePos));
+                if (inBody > 0) {
+                    ByteBuffer body = buf.duplicate();
+                    body.position(start).limit(start + (int) inBody);
+                    crc.update(body);
+                }
+                filePos += read;
+            }
+            buf.flip();
+        }
+
+        public byte readByte() throws IOException {
+            ensure(1);
+            return buf.get();
+        }
+
+        public int readInt() throws IOException {
+            ensure(4);
+            return buf.getInt();
+        }
+
+        public long readLong() throws IOException {
+            ensure(8);
+            return buf.getLong();
+        }
+
+        public double readDouble() throws IOException {
+            ensure(8);
+            return buf.getDouble();
+        }
+
+        /** Fills the given array with the next bytes of the snapshot */
+        public void readBytes(byte[] bytes) throws IOException {
+            for (int off = 0; off < bytes.length; ) {
+                ensure(1);
+                int n = Math.min(buf.remaining(), bytes.length - off);
+                buf.get(bytes, off, n);
+                off += n;
+            }
+        }
+
+        /** Reads a string written by Output.writeString */
+        public String readString() throws IOException {
+            int length = readInt();
+            if (length < 0) return null;
+            if (length > bodyEnd - position()) throw new IOException("Corrupt snapshot string length");
+            byte[] bytes = new byte[length];
+            readBytes(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /** @return offset of the next byte to be handed out */
+        long position() { return filePos - buf.remaining(); }
+
+        /** @return checksum of the body, valid once the whole body has been read */
+        long checksum() { return crc.getValue(); }
+    }
+
+    private GraphSnapshot() { }
+
+    /**
+     * Reads the checksum stored in a snapshot's trailer without reading the rest of the file
+     * @param path the snapshot file
+     * @return the stored checksum, which identifies the snapshot's contents
+     * @throws IOException if the file cannot be read or is too short to be a snapshot
+     */
+    static long storedChecksum(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < TRAILER_SIZE) throw new IOException("Not a graph snapshot");
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            while (trailer.hasRemaining())
+                if (channel.read(trailer, size - TRAILER_SIZE + trailer.position()) < 0) throw new IOException("Snapshot is truncated");
+            return trailer.getLong(0);
+        }
+    }
+
+    /**
+     * Writes a graph to a snapshot file. The snapshot is written beside the target and moved over it
+     * once complete, so a crash while saving leaves any previous snapshot intact.
+     * @param g the graph to be saved
+     * @param path the file to write, replaced if it exists
+     * @param vertexCodec writes vertex elements
+     * @param edgeCodec writes edge elements
+     * @throws IOException if the file cannot be written
+     */
+    public static <V, E> void save(AdjacencyListGraph<V, E> g, Path path, ElementCodec<V> vertexCodec,
+                                   ElementCodec<E> edgeCodec) throws IOException {
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(g.isDirected() ? FLAG_DIRECTED : 0);
+            out.writeInt(g.vertexIdBound());
+            out.writeInt(g.numVertices());
+            out.writeInt(g.numEdges());
+
+            // vertices, remembering the file order of each vertex id
+            int[] index = new int[g.vertexIdBound()];
+            int i = 0;
+            for (Vertex<V> v : g.vertices()) {
+                int id = g.vertexId(v);
+                index[id] = i++;
+                out.writeInt(id);
+                vertexCodec.write(v.getElement(), out);
+            }
+            int[] free = g.freeVertexIds();
+            out.writeInt(free.length);
+            for (int id : free) out.writeInt(id);
+
+            // CSR adjacency: row offsets, destinations, then edge elements in the same order
+            int offset = 0;
+            out.writeInt(offset);
+            for (Vertex<V> v : g.vertices()) {
+                for (Edge<E> e : g.originEdges(v)) offset++;
+                out.writeInt(offset);
+            }
+            for (Vertex<V> v : g.vertices())
+                for (Edge<E> e : g.originEdges(v)) out.writeInt(index[g.vertexId(g.opposite(v, e))]);
+            for (Vertex<V> v : g.vertices())
+                for (Edge<E> e : g.originEdges(v)) edgeCodec.write(e.getElement(), out);
+
+            out.flush();
+            ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+            trailer.putLong(out.checksum()).flip();
+            while (trailer.hasRemaining()) channel.write(trailer);
+            channel.force(true);
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a graph from a snapshot file
+     * @param path the snapshot file
+     * @param vertexCodec reads vertex elements
+     * @param edgeCodec reads edge elements
+     * @return the graph stored in the snapshot, with the same vertex ids it was saved with
+     * @throws IOException if the file cannot be read, is not a snapshot of a supported version, or fails its checksum
+     */
+    public static <V, E> AdjacencyListGraph<V, E> load(Path path, ElementCodec<V> vertexCodec,
+                                                       ElementCodec<E> edgeCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long bodyEnd = channel.size() - TRAILER_SIZE;
+            if (bodyEnd < 0) throw new IOException("Not a graph snapshot");
+            Input in = new Input(channel, bodyEnd);
+            if (in.readInt() != MAGIC) throw new IOException("Not a graph snapshot");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version " + version);
+            int flags = in.readInt();
+            int bound = in.readInt(), n = in.readInt(), m = in.readInt();
+            if (n < 0 || m < 0 || n > bound) throw new IOException("Corrupt snapshot header");
+            // every vertex, free id, offset and target takes at least 4 bytes, so counts the body cannot hold are corrupt
+            checkCount((long) bound + 1 + n + m, in, bodyEnd);
+
+            AdjacencyListGraph<V, E> g = new AdjacencyListGraph<>((flags & FLAG_DIRECTED) != 0, true);
+            Vertex<V>[] byIndex = (Vertex<V>[]) new Vertex[n];
+            try {
+                for (int i = 0; i < n; i++) {
+                    int id = in.readInt();
+                    if (id >= bound) throw new IOException("Corrupt snapshot vertex id " + id);
+                    byIndex[i] = g.insertVertex(vertexCodec.read(in), id);
+                }
+                int freeCount = in.readInt();
+                if (freeCount < 0 || freeCount > bound - n) throw new IOException("Corrupt snapshot free list");
+                checkCount(freeCount, in, bodyEnd);
+                int[] free = new int[freeCount];
+                for (int j = 0; j < free.length; j++) free[j] = in.readInt();
+                g.restoreFreeVertexIds(free);
+
+                checkCount((long) n + 1 + m, in, bodyEnd);
+                int[] offsets = new int[n + 1];
+                for (int i = 0; i <= n; i++) {
+                    offsets[i] = in.readInt();
+                    if (i > 0 && offsets[i] < offsets[i - 1]) throw new IOException("Corrupt snapshot adjacency");
+                }
+                if (offsets[0] != 0 || offsets[n] != m) throw new IOException("Corrupt snapshot adjacency");
+                int[] targets = new int[m];
+                for (int k = 0; k < m; k++) {
+                    targets[k] = in.readInt();
+                    if (targets[k] < 0 || targets[k] >= n) throw new IOException("Corrupt snapshot adjacency");
+                }
+                for (int i = 0; i < n; i++)
+                    for (int k = offsets[i]; k < offsets[i + 1]; k++)
+                        g.insertEdge(byIndex[i], byIndex[targets[k]], edgeCodec.read(in));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Corrupt snapshot", e);
+            }
+
+            if (in.position() != bodyEnd) throw new IOException("Corrupt snapshot: unexpected data before trailer");
+            long stored = in.readLong();
+            if (stored != in.checksum()) throw new IOException("Snapshot checksum mismatch");
+            return g;
+        }
+    }
+
+    /** Checks that count ints fit in the bytes left before bodyEnd @throws IOException if they do not */
+    private static void checkCount(long count, Input in, long bodyEnd) throws IOException {
+        if (count < 0 || 4 * count > bodyEnd - in.position()) throw new IOException("Corrupt snapshot: counts exceed file size");
+    }
+}
@@ -0,0 +1,226 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Approximate neighborhood function of an AdjacencyListGraph, computed HyperANF style.
+ *
+ * Every vertex holds a HyperLogLog counter of 2^precision one-byte registers, which starts out counting the vertex itself.
+ * Each iteration replaces a vertex's counter by its union with the counters of its out-neighbors,
+ * so after t iterations it estimates the number of vertices within distance t. Iterations run in parallel
+ * over ranges of vertex ids and stop once no counter changes. The growth of each counter from one iteration
+ * to the next estimates how many vertices lie at exactly that distance, from which closeness, harmonic centrality
+ * and the effective diameter follow. The relative standard error of each counter is about 1.04 / sqrt(2^precision).
+ */
+public class HyperAnf<V, E> {
+    /** Smallest and largest supported number of register index bits */
+    public static final int MIN_PRECISION = 4, MAX_PRECISION = 16;
+    /** Fraction of reachable pairs within the effective diameter */
+    private static final double EFFECTIVE_FRACTION = 0.9;
+    /** Fewest vertex ids handled by one task */
+    private static final int MIN_CHUNK = 1024;
+    /** 2^-k for every register value k */
+    private static final double[] INVERSE_POWERS = new double[66];
+
+    static {
+        for (int k = 0; k < INVERSE_POWERS.length; k++) INVERSE_POWERS[k] = Math.scalb(1.0, -k);
+    }
+
+    /** Estimates produced by a run */
+    public static class Result {
+        private final double[] closeness, harmonic, neighborhood;
+        private final double effectiveDiameter;
+
+        Result(double[] closeness, double[] harmonic, double[] neighborhood, double effectiveDiameter) {
+            this.closeness = closeness;
+            this.harmonic = harmonic;
+            this.neighborhood = neighborhood;
+            this.effectiveDiameter = effectiveDiameter;
+        }
+
+        /** @return estimated reciprocal of the sum of distances to the vertices each vertex reaches, by vertex id; 0 if it reaches none */
+        public double[] closeness() { return closeness; }
+
+        /** @return estimated sum of reciprocal distances to the vertices each vertex reaches, by vertex id */
+        public double[] harmonic() { return harmonic; }
+
+        /** @return estimated number of ordered pairs within distance t, for t = 0 up to the last iteration */
+        public double[] neighborhoodFunction() { return neighborhood; }
+
+        /** @return estimated distance, interpolated, within which 90% of the reachable pairs lie */
+        public double effectiveDiameter() { return effectiveDiameter; }
+
+        /** @return number of iterations until the counters stopped changing */
+        public int iterations() { return neighborhood.length - 1; }
+    }
+
+    /** Outcome of one task of one iteration */
+    private static class Step {
+        private double total = 0;           // sum of the estimates of the task's vertices
+        private boolean changed = false;
+    }
+
+    // Instance variables
+    private final AdjacencyListGraph<V, E> graph;
+    private final int p, m, bound;
+    private final double alphaMM;           // bias correction constant times m squared
+    private final ForkJoinPool pool;
+    private byte[] current, next;           // registers of vertex v occupy [v * m, (v + 1) * m)
+    private final double[] previous, distanceSum, harmonic;
+
+    private HyperAnf(AdjacencyListGraph<V, E> graph, int precision, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+        p = precision;
+        m = 1 << precision;
+        bound = graph.vertexIdBound();
+        if ((long) bound * m > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many registers for this graph; lower the precision");
+        double alpha = (m == 16) ? 0.673 : (m == 32) ? 0.697 : (m == 64) ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        alphaMM = alpha * m * m;
+        current = new byte[bound * m];
+        next = new byte[bound * m];
+        previous = new double[bound];
+        distanceSum = new double[bound];
+        harmonic = new double[bound];
+    }
+
+    /**
+     * Runs HyperANF to convergence
+     * @param graph the graph to be measured; must not change during the run
+     * @param precision number of register index bits, between MIN_PRECISION and MAX_PRECISION;
+     *                  each vertex uses 2 * 2^precision bytes of registers
+     * @param pool the pool on which iterations run
+     * @return approximate closeness, harmonic centrality, neighborhood function and effective diameter
+     * @throws IllegalArgumentException if precision is out of range or the graph needs more than 2^31 registers
+     */
+    public static <V, E> Result run(AdjacencyListGraph<V, E> graph, int precision, ForkJoinPool pool) throws IllegalArgumentException {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) throw new IllegalArgumentException("Precision out of range");
+        return new HyperAnf<>(graph, precision, pool).run();
+    }
+
+    private Result run() {
+        double total = 0;
+        for (int v = 0; v < bound; v++) {
+            if (graph.vertexAt(v) == null) continue;
+            long h = mix(v);
+            int index = (int) (h >>> (64 - p));
+            int rank = Long.numberOfLeadingZeros(h << p | 1L << (p - 1)) + 1;
+            current[v * m + index] = (byte) rank;
+            previous[v] = estimate(current, v);
+            total += previous[v];
+        }
+        double[] neighborhood = new double[16];
+        neighborhood[0] = total;
+        int t = 0;
+        while (true) {
+            t++;
+            int distance = t;
+            ArrayList<Step> steps = runChunks((from, to, step) -> iterate(from, to, distance, step));
+            boolean changed = false;
+            total = 0;
+            for (Step step : steps) {
+                changed |= step.changed;
+                total += step.total;
+            }
+            if (!changed) break;
+            if (t == neighborhood.length) neighborhood = Arrays.copyOf(neighborhood, 2 * t);
+            neighborhood[t] = total;
+            byte[] swap = current;
+            current = next;
+            next = swap;
+        }
+        neighborhood = Arrays.copyOf(neighborhood, t);
+
+        double[] closeness = new double[bound];
+        for (int v = 0; v < bound; v++) closeness[v] = distanceSum[v] > 0 ? 1 / distanceSum[v] : 0;
+        return new Result(closeness, harmonic, neighborhood, effectiveDiameter(neighborhood));
+    }
+
+    /** Unions the counters of the vertices in [from, to) with those of their out-neighbors, for the given distance */
+    private void iterate(int from, int to, int distance, Step step) {
+        for (int v = from; v < to; v++) {
+            Vertex<V> vert = graph.vertexAt(v);
+            if (vert == null) continue;
+            int base = v * m;
+            System.arraycopy(current, base, next, base, m);
+            boolean changed = false;
+            for (Edge<E> e : graph.outgoingEdgeList(vert)) {
+                int other = graph.vertexId(graph.opposite(vert, e)) * m;
+                for (int j = 0; j < m; j++) {
+                    if (current[other + j] > next[base + j]) {
+                        next[base + j] = current[other + j];
+                        changed = true;
+                    }
+                }
+            }
+            double count = previous[v];
+            if (changed) {
+                count = estimate(next, v);
+                double delta = count - previous[v];
+                if (delta > 0) {
+                    distanceSum[v] += distance * delta;
+                    harmonic[v] += delta / distance;
+                }
+                previous[v] = count;
+                step.changed = true;
+            }
+            step.total += count;
+        }
+    }
+
+    /** @return the HyperLogLog estimate of the counter of vertex id v in the given registers */
+    private double estimate(byte[] registers, int v) {
+        double sum = 0;
+        int zeros = 0;
+        for (int j = v * m, end = j + m; j < end; j++) {
+            sum += INVERSE_POWERS[registers[j]];
+            if (registers[j] == 0) zeros++;
+        }
+        double e = alphaMM / sum;
+        if (e <= 2.5 * m && zeros > 0) e = m * Math.log((double) m / zeros);    // linear counting for small sets
+        return e;
+    }
+
+    /** @return distance, interpolated between iterations, within which EFFECTIVE_FRACTION of the reachable pairs lie */
+    private static double effectiveDiameter(double[] neighborhood) {
+        double target = EFFECTIVE_FRACTION * neighborhood[neighborhood.length - 1];
+        for (int t = 0; t < neighborhood.length; t++) {
+            if (neighborhood[t] >= target) {
+                if (t == 0) return 0;
+                return t - 1 + (target - neighborhood[t - 1]) / (neighborhood[t] - neighborhood[t - 1]);
+            }
+        }
+        return neighborhood.length - 1;
+    }
+
+    /** Work done by one task over the vertex ids [from, to) */
+    private interface ChunkBody {
+        void run(int from, int to, Step step);
+    }
+
+    /** Splits the vertex ids into chunks, runs them on the pool and waits for all of them */
+    private ArrayList<Step> runChunks(ChunkBody body) {
+        int chunks = Math.max(1, Math.min(4 * pool.getParallelism(), bound / MIN_CHUNK));
+        ArrayList<ForkJoinTask<Step>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) bound * c / chunks), to = (int) ((long) bound * (c + 1) / chunks);
+            tasks.add(pool.submit(() -> {
+                Step step = new Step();
+                body.run(from, to, step);
+                return step;
+            }));
+        }
+        ArrayList<Step> answer = new ArrayList<>(chunks);
+        for (ForkJoinTask<Step> task : tasks) answer.add(task.join());
+        return answer;
+    }
+
+    /** @return a well mixed 64-bit hash of a vertex id (the SplitMix64 finalizer) */
+    private static long mix(long x) {
+        x += 0x9E3779B97F4A7C15L;
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
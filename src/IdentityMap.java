@@ -0,0 +1,155 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map that compares keys by reference, for keys such as vertices and edges whose identity is their equality.
+ *
+ * Keys are hashed with System.identityHashCode spread by the golden ratio, so neither hashCode nor equals is called.
+ * Keys and values alternate in a single power-of-two array probed linearly, which keeps a key and its value on the
+ * same cache line, and removal shifts later entries back rather than leaving markers behind. Null keys are not supported.
+ */
+public class IdentityMap<K,V> extends AbstractMap<K,V> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    // Instance variables
+    private Object[] table;     // key at 2j, value at 2j + 1; a null key marks an empty slot
+    private int shift;          // home slot of a key is its mixed hash >>> shift
+    private int mask;           // number of slots - 1
+    private int n = 0;          // number of entries
+
+    // Constructors
+
+    /** Creates an empty map */
+    public IdentityMap() { this(DEFAULT_CAPACITY / 2); }
+
+    /**
+     * Creates an empty map that holds the given number of entries without growing
+     * @param expected number of entries expected
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public IdentityMap(int expected) throws IllegalArgumentException {
+        if (expected < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = DEFAULT_CAPACITY;
+        while (cap / 2 < expected) cap <<= 1;
+        createTable(cap);
+    }
+
+    private void createTable(int cap) {
+        table = new Object[2 * cap];
+        mask = cap - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(cap);
+    }
+
+    /** @return number of entries in the map */
+    @Override
+    public int size() { return n; }
+
+    /**
+     * Returns the value stored at the given key
+     * @param key a key in the map
+     * @return the value stored at key, or null if key is not in the map
+     */
+    @Override
+    public V get(K key) {
+        int j = find(key);
+        return (j < 0) ? null : (V) table[2 * j + 1];
+    }
+
+    /**
+     * Stores a key/value pair, replacing any value already stored at the same object
+     * @param key the key
+     * @param value the value to be stored at key
+     * @return the value previously stored at key, or null if there was none
+     * @throws IllegalArgumentException if key is null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        if (key == null) throw new IllegalArgumentException("Null key");
+        int j = home(key);
+        while (table[2 * j] != null) {
+            if (table[2 * j] == key) {
+                V old = (V) table[2 * j + 1];
+                table[2 * j + 1] = value;
+                return old;
+            }
+            j = (j + 1) & mask;
+        }
+        table[2 * j] = key;
+        table[2 * j + 1] = value;
+        if (++n > (mask + 1) / 2) resize();     // load factor 1/2
+        return null;
+    }
+
+    /**
+     * Removes the given key from the map
+     * @param key the key to be removed
+     * @return the value stored at the removed key, or null if key was not in the map
+     */
+    @Override
+    public V remove(K key) {
+        int j = find(key);
+        if (j < 0) return null;
+        V answer = (V) table[2 * j + 1];
+        // backward shift: move up any later entry whose probe sequence passes through the vacated slot
+        for (int i = (j + 1) & mask; table[2 * i] != null; i = (i + 1) & mask) {
+            int h = home(table[2 * i]);
+            if (((i - h) & mask) >= ((i - j) & mask)) {
+                table[2 * j] = table[2 * i];
+                table[2 * j + 1] = table[2 * i + 1];
+                j = i;
+            }
+        }
+        table[2 * j] = null;
+        table[2 * j + 1] = null;
+        n--;
+        return answer;
+    }
+
+    /** @return an iterable collection of the entries in the map, read lazily from the table */
+    @Override
+    public Iterable<Entry<K,V>> entrySet() { return EntryIterator::new; }
+
+    // Private utilities
+
+    private int home(Object key) { return (System.identityHashCode(key) * 0x9E3779B9) >>> shift; }
+
+    /** @return slot holding key, or -1 if key is not in the map */
+    private int find(Object key) {
+        if (key == null) return -1;
+        for (int j = home(key); table[2 * j] != null; j = (j + 1) & mask)
+            if (table[2 * j] == key) return j;
+        return -1;
+    }
+
+    /** Doubles the number of slots, moving every entry straight into the new array */
+    private void resize() {
+        Object[] old = table;
+        createTable(2 * (mask + 1));
+        for (int i = 0; i < old.length; i += 2) {
+            if (old[i] == null) continue;
+            int j = home(old[i]);
+            while (table[2 * j] != null) j = (j + 1) & mask;
+            table[2 * j] = old[i];
+            table[2 * j + 1] = old[i + 1];
+        }
+    }
+
+    // Nested EntryIterator class
+    private class EntryIterator implements Iterator<Entry<K,V>> {
+        private int j = 0;      // next slot to examine
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            while (j <= mask && table[2 * j] == null) j++;
+            return j <= mask;
+        }
+
+        /** @return next entry in the map */
+        public Entry<K,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry<K,V> e = new MapEntry<>((K) table[2 * j], (V) table[2 * j + 1]);
+            j++;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-priority queue of int ids in [0, capacity) with int keys, stored as an implicit d-ary heap.
+ *
+ * The heap array holds ids, keys are kept by id, and a position array maps each id to its slot in the heap,
+ * so decreaseKey finds its id directly and needs neither an entry object nor a map from ids to entries.
+ * A position is trusted only if the heap slot it names holds that id, which lets clear run in constant time
+ * without resetting the position array. A wider heap is shallower, making decreaseKey cheaper and removeMin
+ * dearer; an arity of 4 suits Dijkstra's algorithm on sparse graphs well.
+ */
+public class IndexedDaryHeap implements IntPriorityQueue {
+    /** Arity used by the single-argument constructor */
+    public static final int DEFAULT_ARITY = 4;
+
+    // Instance variables
+    private final int d;
+    private int[] heap;         // ids in heap order
+    private int[] keys;         // keys[id] is the key of id while it is queued
+    private int[] position;     // heap[position[id]] == id while id is queued
+    private int size = 0;
+
+    // Constructors
+
+    /** Creates an empty 4-ary heap for ids below capacity */
+    public IndexedDaryHeap(int capacity) { this(capacity, DEFAULT_ARITY); }
+
+    /**
+     * Creates an empty heap
+     * @param capacity one more than the largest id that will be queued
+     * @param arity the number of children of each node, at least 2
+     * @throws IllegalArgumentException if capacity is negative or arity is less than 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        if (arity < 2) throw new IllegalArgumentException("Arity must be at least 2");
+        d = arity;
+        heap = new int[capacity];
+        keys = new int[capacity];
+        position = new int[capacity];
+    }
+
+    // Accessors
+
+    /** @return number of ids queued */
+    public int size() { return size; }
+
+    /** @return true if no id is queued */
+    public boolean isEmpty() { return size == 0; }
+
+    /** @return the number of children of each node */
+    public int arity() { return d; }
+
+    /** @return one more than the largest id that may be queued */
+    public int capacity() { return heap.length; }
+
+    /** @return true if id is currently queued */
+    public boolean contains(int id) {
+        int p = position[id];
+        return p < size && heap[p] == id;
+    }
+
+    /**
+     * Returns the key of a queued id
+     * @param id the id whose key is wanted
+     * @return its key
+     * @throws IllegalArgumentException if id is not queued
+     */
+    public int key(int id) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        return keys[id];
+    }
+
+    /** @return id with the smallest key @throws NoSuchElementException if the heap is empty */
+    public int min() throws NoSuchElementException {
+        if (size == 0) throw new NoSuchElementException("Heap is empty");
+        return heap[0];
+    }
+
+    /** @return the smallest key @throws NoSuchElementException if the heap is empty */
+    public int minKey() throws NoSuchElementException {
+        return keys[min()];
+    }
+
+    // Mutators
+
+    /**
+     * Queues an id with the given key
+     * @param id an id below capacity, not already queued
+     * @param key its key
+     * @throws IllegalArgumentException if id is already queued
+     */
+    public void insert(int id, int key) throws IllegalArgumentException {
+        if (contains(id)) throw new IllegalArgumentException("Id already queued");
+        keys[id] = key;
+        heap[size] = id;
+        position[id] = size;
+        upheap(size++);
+    }
+
+    /**
+     * Lowers the key of a queued id
+     * @param id the queued id
+     * @param key its new key, no greater than the current one
+     * @throws IllegalArgumentException if id is not queued or key is greater than its current key
+     */
+    public void decreaseKey(int id, int key) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        if (key > keys[id]) throw new IllegalArgumentException("Key would increase");
+        keys[id] = key;
+        upheap(position[id]);
+    }
+
+    /**
+     * Queues id with the given key, or lowers its key if it is queued with a greater one
+     * @param id an id below capacity
+     * @param key its key
+     * @return true if the id was inserted or its key lowered
+     */
+    public boolean insertOrDecrease(int id, int key) {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        if (key >= keys[id]) return false;
+        keys[id] = key;
+        upheap(position[id]);
+        return true;
+    }
+
+    /** Removes the id with the smallest key @return that id @throws NoSuchElementException if the heap is empty */
+    public int removeMin() throws NoSuchElementException {
+        int top = min();
+        int last = heap[--size];
+        if (size > 0) {
+            heap[0] = last;
+            position[last] = 0;
+            downheap(0);
+        }
+        return top;
+    }
+
+    /** Removes every id, in constant time */
+    public void clear() { size = 0; }
+
+    /** Grows the heap so that ids below capacity may be queued; queued ids are kept */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= heap.length) return;
+        heap = Arrays.copyOf(heap, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        position = Arrays.copyOf(position, capacity);
+    }
+
+    // Private utilities
+
+    /** Moves the id at slot j up until its parent's key is no greater */
+    private void upheap(int j) {
+        int id = heap[j], key = keys[id];
+        while (j > 0) {
+            int p = (j - 1) / d;
+            int parent = heap[p];
+            if (keys[parent] <= key) break;
+            heap[j] = parent;
+            position[parent] = j;
+            j = p;
+        }
+        heap[j] = id;
+        position[id] = j;
+    }
+
+    /** Moves the id at slot j down until no child's key is smaller */
+    private void downheap(int j) {
+        int id = heap[j], key = keys[id];
+        while (true) {
+            long child = (long) d * j + 1;
+            if (child >= size) break;
+            int first = (int) child;
+            int best = first, bestKey = keys[heap[first]];
+            for (int c = first + 1, end = Math.min(first + d, size); c < end; c++) {
+                int k = keys[heap[c]];
+                if (k < bestKey) {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if (bestKey >= key) break;
+            heap[j] = heap[best];
+            position[heap[j]] = j;
+            j = best;
+        }
+        heap[j] = id;
+        position[id] = j;
+    }
+}
@@ -0,0 +1,196 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Dial's bucket queue over int ids in [0, capacity) with int keys, for Dijkstra's algorithm over small edge weights.
+ *
+ * Keys must be monotone, as they are in Dijkstra's algorithm: none may be below the key last removed, nor more than
+ * maxWeight above it. Bucket k mod (maxWeight + 1) links the ids with key k through next and prev arrays indexed
+ * by id, so insert and decreaseKey take constant time and allocate nothing, and removeMin advances a cursor to the
+ * next non-empty bucket. Over one run of Dijkstra's algorithm the cursor moves no further than the largest distance.
+ * Queued ids are epoch stamped, so clear takes constant time once the queue has been emptied.
+ */
+public class IntBucketQueue implements IntPriorityQueue {
+    /** Largest edge weight for which forMaxWeight chooses an IntBucketQueue */
+    public static final int DIAL_MAX_WEIGHT = 1 << 12;
+    private static final int NONE = -1;
+
+    // Instance variables
+    private final int span;             // number of buckets, maxWeight + 1
+    private final int[] head;           // first id of each bucket, NONE if it is empty
+    private int[] next, prev;           // links by id within a bucket
+    private int[] keys;                 // keys[id] is the key of id while it is queued
+    private int[] stamps;               // stamps[id] == epoch while id is queued
+    private int epoch = 1;
+    private int last = 0;               // key last removed, the smallest any key may be
+    private int size = 0;
+
+    // Constructors
+
+    /**
+     * Creates an empty queue
+     * @param capacity one more than the largest id that will be queued
+     * @param maxWeight the most by which any key may exceed the key last removed
+     * @throws IllegalArgumentException if capacity is negative or maxWeight is negative or too large for a bucket array
+     */
+    public IntBucketQueue(int capacity, int maxWeight) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        if (maxWeight < 0 || maxWeight == Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid maximum weight");
+        span = maxWeight + 1;
+        head = new int[span];
+        Arrays.fill(head, NONE);
+        next = new int[capacity];
+        prev = new int[capacity];
+        keys = new int[capacity];
+        stamps = new int[capacity];
+    }
+
+    /**
+     * Creates an empty queue suited to Dijkstra's algorithm over edges of weight at most maxWeight
+     * @param capacity one more than the largest id that will be queued
+     * @param maxWeight the largest weight of any edge
+     * @return an IntBucketQueue if maxWeight is at most DIAL_MAX_WEIGHT, otherwise an IntRadixHeap
+     * @throws IllegalArgumentException if capacity or maxWeight is negative
+     */
+    public static IntPriorityQueue forMaxWeight(int capacity, int maxWeight) throws IllegalArgumentException {
+        if (maxWeight < 0) throw new IllegalArgumentException("Negative edge weight");
+        if (maxWeight <= DIAL_MAX_WEIGHT) return new IntBucketQueue(capacity, maxWeight);
+        return new IntRadixHeap(capacity);
+    }
+
+    // Accessors
+
+    /** @return number of ids queued */
+    public int size() { return size; }
+
+    /** @return true if no id is queued */
+    public boolean isEmpty() { return size == 0; }
+
+    /** @return the most by which a key may exceed the key last removed */
+    public int maxWeight() { return span - 1; }
+
+    /** @return one more than the largest id that may be queued */
+    public int capacity() { return keys.length; }
+
+    /** @return true if id is currently queued */
+    public boolean contains(int id) { return stamps[id] == epoch; }
+
+    /**
+     * Returns the key of a queued id
+     * @param id the id whose key is wanted
+     * @return its key
+     * @throws IllegalArgumentException if id is not queued
+     */
+    public int key(int id) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        return keys[id];
+    }
+
+    // Mutators
+
+    /**
+     * Queues an id with the given key
+     * @param id an id below capacity, not already queued
+     * @param key its key, within maxWeight above the key last removed, or any larger key if the queue is empty
+     * @throws IllegalArgumentException if id is already queued or key is out of range
+     */
+    public void insert(int id, int key) throws IllegalArgumentException {
+        if (contains(id)) throw new IllegalArgumentException("Id already queued");
+        if (size == 0 && key - last >= span) last = key;     // nothing queued lies between them
+        checkRange(key);
+        stamps[id] = epoch;
+        link(id, key);
+        size++;
+    }
+
+    /**
+     * Lowers the key of a queued id
+     * @param id the queued id
+     * @param key its new key, no greater than the current one and no less than the key last removed
+     * @throws IllegalArgumentException if id is not queued or key is greater than its current key or out of range
+     */
+    public void decreaseKey(int id, int key) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        if (key > keys[id]) throw new IllegalArgumentException("Key would increase");
+        checkRange(key);
+        unlink(id);
+        link(id, key);
+    }
+
+    /**
+     * Queues id with the given key, or lowers its key if it is queued with a greater one
+     * @param id an id below capacity
+     * @param key its key
+     * @return true if the id was inserted or its key lowered
+     * @throws IllegalArgumentException if key is out of range
+     */
+    public boolean insertOrDecrease(int id, int key) throws IllegalArgumentException {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        if (key >= keys[id]) return false;
+        decreaseKey(id, key);
+        return true;
+    }
+
+    /** Removes an id with the smallest key @return that id @throws NoSuchElementException if the queue is empty */
+    public int removeMin() throws NoSuchElementException {
+        if (size == 0) throw new NoSuchElementException("Queue is empty");
+        int b = last % span;
+        while (head[b] == NONE) {
+            last++;
+            if (++b == span) b = 0;
+        }
+        int id = head[b];
+        unlink(id);
+        stamps[id] = 0;
+        size--;
+        return id;
+    }
+
+    /** Removes every id, in constant time if the queue is already empty */
+    public void clear() {
+        if (size > 0) Arrays.fill(head, NONE);
+        size = 0;
+        last = 0;
+        if (++epoch == 0) {                     // wrapped around, old stamps could match again
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /** Grows the queue so that ids below capacity may be queued; queued ids are kept */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) return;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+
+    // Private utilities
+
+    /** @throws IllegalArgumentException if key is below the key last removed or more than maxWeight above it */
+    private void checkRange(int key) throws IllegalArgumentException {
+        if (key < last) throw new IllegalArgumentException("Key below current minimum");
+        if (key - last >= span) throw new IllegalArgumentException("Key beyond maximum weight of current minimum");
+    }
+
+    /** Sets the key of id and puts it at the front of its bucket */
+    private void link(int id, int key) {
+        int b = key % span;
+        keys[id] = key;
+        prev[id] = NONE;
+        next[id] = head[b];
+        if (head[b] != NONE) prev[head[b]] = id;
+        head[b] = id;
+    }
+
+    /** Takes id out of its bucket */
+    private void unlink(int id) {
+        if (prev[id] != NONE) next[prev[id]] = next[id];
+        else head[keys[id] % span] = next[id];
+        if (next[id] != NONE) prev[next[id]] = prev[id];
+    }
+}
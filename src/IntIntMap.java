@@ -0,0 +1,194 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map from int keys to int values stored in two parallel int arrays, with no boxing and no entry objects.
+ *
+ * The primitive methods getInt, putInt, removeInt and containsKey should be preferred; the methods of the
+ * Map interface box their arguments and results. Slots are probed linearly in a power-of-two table and removal
+ * shifts later entries back. Key 0 marks an empty slot, so an entry with key 0 is kept outside the table.
+ */
+public class IntIntMap extends AbstractMap<Integer,Integer> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    // Instance variables
+    private int[] keys;         // 0 marks an empty slot
+    private int[] vals;
+    private boolean hasZeroKey = false;
+    private int zeroValue;
+    private int shift;          // home slot of key k is mixed(k) >>> shift
+    private int mask;           // table length - 1
+    private int n = 0;          // number of entries, including any zero key
+
+    // Constructors
+
+    /** Creates an empty map */
+    public IntIntMap() { this(DEFAULT_CAPACITY / 2); }
+
+    /**
+     * Creates an empty map that holds the given number of entries without growing
+     * @param expected number of entries expected
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public IntIntMap(int expected) throws IllegalArgumentException {
+        if (expected < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = DEFAULT_CAPACITY;
+        while (cap - cap / 4 < expected) cap <<= 1;
+        createTable(cap);
+    }
+
+    private void createTable(int cap) {
+        keys = new int[cap];
+        vals = new int[cap];
+        mask = cap - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(cap);
+    }
+
+    /** @return number of entries in the map */
+    @Override
+    public int size() { return n; }
+
+    /** @return true if key is in the map */
+    public boolean containsKey(int key) { return key == 0 ? hasZeroKey : find(key) >= 0; }
+
+    /**
+     * Returns the value stored at the given key
+     * @param key a key in the map
+     * @param missing the value to return if key is not in the map
+     * @return the value stored at key, or missing
+     */
+    public int getInt(int key, int missing) {
+        if (key == 0) return hasZeroKey ? zeroValue : missing;
+        int j = find(key);
+        return (j < 0) ? missing : vals[j];
+    }
+
+    /**
+     * Stores a key/value pair, replacing any value already stored at key
+     * @param key the key
+     * @param value the value to be stored at key
+     * @return true if key was not in the map before
+     */
+    public boolean putInt(int key, int value) {
+        if (key == 0) {
+            zeroValue = value;
+            if (hasZeroKey) return false;
+            hasZeroKey = true;
+            n++;
+            return true;
+        }
+        int j = home(key);
+        while (keys[j] != 0) {
+            if (keys[j] == key) {
+                vals[j] = value;
+                return false;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[j] = key;
+        vals[j] = value;
+        if (++n > mask + 1 - (mask + 1) / 4) resize();      // load factor 3/4
+        return true;
+    }
+
+    /**
+     * Removes the given key from the map
+     * @param key the key to be removed
+     * @return true if key was in the map
+     */
+    public boolean removeInt(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) return false;
+            hasZeroKey = false;
+            n--;
+            return true;
+        }
+        int j = find(key);
+        if (j < 0) return false;
+        for (int i = (j + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (((i - home(keys[i])) & mask) >= ((i - j) & mask)) {
+                keys[j] = keys[i];
+                vals[j] = vals[i];
+                j = i;
+            }
+        }
+        keys[j] = 0;
+        n--;
+        return true;
+    }
+
+    /** @return the value stored at key, or null if key is not in the map */
+    @Override
+    public Integer get(Integer key) {
+        return (key != null && containsKey(key)) ? getInt(key, 0) : null;
+    }
+
+    /**
+     * Stores a key/value pair
+     * @return the value previously stored at key, or null if there was none
+     * @throws IllegalArgumentException if key or value is null
+     */
+    @Override
+    public Integer put(Integer key, Integer value) throws IllegalArgumentException {
+        if (key == null || value == null) throw new IllegalArgumentException("Null key or value");
+        Integer old = get(key);
+        putInt(key, value);
+        return old;
+    }
+
+    /** @return the value stored at the removed key, or null if key was not in the map */
+    @Override
+    public Integer remove(Integer key) {
+        Integer old = get(key);
+        if (old != null) removeInt(key);
+        return old;
+    }
+
+    /** @return an iterable collection of the entries in the map, read lazily from the table */
+    @Override
+    public Iterable<Entry<Integer,Integer>> entrySet() { return EntryIterator::new; }
+
+    // Private utilities
+
+    private int home(int key) { return (key * 0x9E3779B9) >>> shift; }
+
+    /** @return slot holding the non-zero key, or -1 if it is not in the map */
+    private int find(int key) {
+        for (int j = home(key); keys[j] != 0; j = (j + 1) & mask)
+            if (keys[j] == key) return j;
+        return -1;
+    }
+
+    /** Doubles the table, moving every entry straight into the new arrays */
+    private void resize() {
+        int[] oldKeys = keys, oldVals = vals;
+        createTable(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int j = home(oldKeys[i]);
+            while (keys[j] != 0) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            vals[j] = oldVals[i];
+        }
+    }
+
+    // Nested EntryIterator class
+    private class EntryIterator implements Iterator<Entry<Integer,Integer>> {
+        private int j = hasZeroKey ? -1 : 0;    // next slot to examine; -1 stands for the zero key
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            if (j < 0) return true;
+            while (j < keys.length && keys[j] == 0) j++;
+            return j < keys.length;
+        }
+
+        /** @return next entry in the map */
+        public Entry<Integer,Integer> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry<Integer,Integer> e = (j < 0) ? new MapEntry<>(0, zeroValue) : new MapEntry<>(keys[j], vals[j]);
+            j++;
+            return e;
+        }
+    }
+}
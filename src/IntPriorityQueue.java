@@ -0,0 +1,58 @@
+import java.util.NoSuchElementException;
+
+/**
+ * Min-priority queue of int ids in [0, capacity) with int keys, as used by Dijkstra's algorithm over dense vertex ids.
+ * IndexedDaryHeap accepts any keys. IntBucketQueue and IntRadixHeap need monotone keys and are faster for them,
+ * the first when edge weights are small; IntBucketQueue.forMaxWeight chooses between the two.
+ */
+public interface IntPriorityQueue {
+    /** @return number of ids queued */
+    int size();
+
+    /** @return true if no id is queued */
+    boolean isEmpty();
+
+    /** @return true if id is currently queued */
+    boolean contains(int id);
+
+    /**
+     * Returns the key of a queued id
+     * @param id the id whose key is wanted
+     * @return its key
+     * @throws IllegalArgumentException if id is not queued
+     */
+    int key(int id) throws IllegalArgumentException;
+
+    /**
+     * Queues an id with the given key
+     * @param id an id below capacity, not already queued
+     * @param key its key
+     * @throws IllegalArgumentException if id is already queued
+     */
+    void insert(int id, int key) throws IllegalArgumentException;
+
+    /**
+     * Lowers the key of a queued id
+     * @param id the queued id
+     * @param key its new key, no greater than the current one
+     * @throws IllegalArgumentException if id is not queued or key is greater than its current key
+     */
+    void decreaseKey(int id, int key) throws IllegalArgumentException;
+
+    /**
+     * Queues id with the given key, or lowers its key if it is queued with a greater one
+     * @param id an id below capacity
+     * @param key its key
+     * @return true if the id was inserted or its key lowered
+     */
+    boolean insertOrDecrease(int id, int key);
+
+    /** Removes the id with the smallest key @return that id @throws NoSuchElementException if the queue is empty */
+    int removeMin() throws NoSuchElementException;
+
+    /** Removes every id */
+    void clear();
+
+    /** Grows the queue so that ids below capacity may be queued; queued ids are kept */
+    void ensureCapacity(int capacity);
+}
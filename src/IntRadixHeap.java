@@ -0,0 +1,183 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Radix heap over int ids in [0, capacity) with arbitrary non-negative int keys, for Dijkstra's algorithm when
+ * edge weights are too large for an IntBucketQueue.
+ *
+ * Keys must be monotone: none may be below the key last removed. Bucket 0 holds the ids whose key equals that
+ * minimum, and bucket i > 0 the ids whose key first differs from it at bit i - 1. When bucket 0 runs out, the lowest
+ * non-empty bucket is emptied: its smallest key becomes the new minimum and its ids fall into lower buckets.
+ * An id only ever moves to lower buckets, so each is moved at most 32 times, and Dijkstra's algorithm runs in
+ * O(E + V log C) for largest edge weight C. Buckets are linked through next and prev arrays indexed by id,
+ * and queued ids are epoch stamped as in IntBucketQueue, so nothing is allocated after construction.
+ */
+public class IntRadixHeap implements IntPriorityQueue {
+    /** One bucket for keys equal to the minimum, and one per bit of a non-negative int */
+    private static final int NUM_BUCKETS = 33;
+    private static final int NONE = -1;
+
+    // Instance variables
+    private final int[] head = new int[NUM_BUCKETS];    // first id of each bucket, NONE if it is empty
+    private int[] next, prev;           // links by id within a bucket
+    private int[] keys;                 // keys[id] is the key of id while it is queued
+    private int[] bucketOf;             // bucket holding id while it is queued
+    private int[] stamps;               // stamps[id] == epoch while id is queued
+    private int epoch = 1;
+    private int last = 0;               // key last removed, the smallest any key may be
+    private int size = 0;
+
+    // Constructors
+
+    /**
+     * Creates an empty heap
+     * @param capacity one more than the largest id that will be queued
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IntRadixHeap(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        Arrays.fill(head, NONE);
+        next = new int[capacity];
+        prev = new int[capacity];
+        keys = new int[capacity];
+        bucketOf = new int[capacity];
+        stamps = new int[capacity];
+    }
+
+    // Accessors
+
+    /** @return number of ids queued */
+    public int size() { return size; }
+
+    /** @return true if no id is queued */
+    public boolean isEmpty() { return size == 0; }
+
+    /** @return one more than the largest id that may be queued */
+    public int capacity() { return keys.length; }
+
+    /** @return true if id is currently queued */
+    public boolean contains(int id) { return stamps[id] == epoch; }
+
+    /**
+     * Returns the key of a queued id
+     * @param id the id whose key is wanted
+     * @return its key
+     * @throws IllegalArgumentException if id is not queued
+     */
+    public int key(int id) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        return keys[id];
+    }
+
+    // Mutators
+
+    /**
+     * Queues an id with the given key
+     * @param id an id below capacity, not already queued
+     * @param key its key, no less than the key last removed
+     * @throws IllegalArgumentException if id is already queued or key is below the key last removed
+     */
+    public void insert(int id, int key) throws IllegalArgumentException {
+        if (contains(id)) throw new IllegalArgumentException("Id already queued");
+        if (key < last) throw new IllegalArgumentException("Key below current minimum");
+        stamps[id] = epoch;
+        link(id, key);
+        size++;
+    }
+
+    /**
+     * Lowers the key of a queued id
+     * @param id the queued id
+     * @param key its new key, no greater than the current one and no less than the key last removed
+     * @throws IllegalArgumentException if id is not queued or key is greater than its current key or out of range
+     */
+    public void decreaseKey(int id, int key) throws IllegalArgumentException {
+        if (!contains(id)) throw new IllegalArgumentException("Id not queued");
+        if (key > keys[id]) throw new IllegalArgumentException("Key would increase");
+        if (key < last) throw new IllegalArgumentException("Key below current minimum");
+        unlink(id);
+        link(id, key);
+    }
+
+    /**
+     * Queues id with the given key, or lowers its key if it is queued with a greater one
+     * @param id an id below capacity
+     * @param key its key
+     * @return true if the id was inserted or its key lowered
+     * @throws IllegalArgumentException if key is below the key last removed
+     */
+    public boolean insertOrDecrease(int id, int key) throws IllegalArgumentException {
+        if (!contains(id)) {
+            insert(id, key);
+            return true;
+        }
+        if (key >= keys[id]) return false;
+        decreaseKey(id, key);
+        return true;
+    }
+
+    /** Removes an id with the smallest key @return that id @throws NoSuchElementException if the heap is empty */
+    public int removeMin() throws NoSuchElementException {
+        if (size == 0) throw new NoSuchElementException("Heap is empty");
+        if (head[0] == NONE) {
+            int i = 1;
+            while (head[i] == NONE) i++;
+            int min = Integer.MAX_VALUE;
+            for (int id = head[i]; id != NONE; id = next[id]) min = Math.min(min, keys[id]);
+            last = min;
+            int id = head[i];
+            head[i] = NONE;
+            while (id != NONE) {                // redistribute relative to the new minimum
+                int following = next[id];
+                link(id, keys[id]);
+                id = following;
+            }
+        }
+        int id = head[0];
+        unlink(id);
+        stamps[id] = 0;
+        size--;
+        return id;
+    }
+
+    /** Removes every id, in constant time */
+    public void clear() {
+        if (size > 0) Arrays.fill(head, NONE);
+        size = 0;
+        last = 0;
+        if (++epoch == 0) {                     // wrapped around, old stamps could match again
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+    }
+
+    /** Grows the heap so that ids below capacity may be queued; queued ids are kept */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= keys.length) return;
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        bucketOf = Arrays.copyOf(bucketOf, capacity);
+        stamps = Arrays.copyOf(stamps, capacity);
+    }
+
+    // Private utilities
+
+    /** Sets the key of id and puts it at the front of the bucket for that key */
+    private void link(int id, int key) {
+        int b = (key == last) ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+        keys[id] = key;
+        bucketOf[id] = b;
+        prev[id] = NONE;
+        next[id] = head[b];
+        if (head[b] != NONE) prev[head[b]] = id;
+        head[b] = id;
+    }
+
+    /** Takes id out of its bucket */
+    private void unlink(int id) {
+        if (prev[id] != NONE) next[prev[id]] = next[id];
+        else head[bucketOf[id]] = next[id];
+        if (next[id] != NONE) prev[next[id]] = prev[id];
+    }
+}
@@ -0,0 +1,78 @@
+import java.util.NoSuchElementException;
+
+/**
+ * FIFO queue of ints in a circular array that doubles when full, for frontiers of vertex ids.
+ * Unlike an ArrayQueue of Integer it boxes nothing, and a queue that is cleared and reused allocates nothing.
+ */
+public class IntRingQueue {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // Instance variables
+    private int[] data;         // length is a power of two
+    private int mask;           // data.length - 1
+    private int f = 0;          // index of the front element
+    private int sz = 0;         // number of elements
+
+    // Constructors
+
+    /** Constructs an empty queue */
+    public IntRingQueue() { this(DEFAULT_CAPACITY); }
+
+    /**
+     * Constructs an empty queue with room for the given number of ints
+     * @param capacity number of ints the queue holds before growing
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public IntRingQueue(int capacity) throws IllegalArgumentException {
+        if (capacity < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = 1;
+        while (cap < capacity) cap <<= 1;
+        data = new int[cap];
+        mask = cap - 1;
+    }
+
+    /** @return number of ints in the queue */
+    public int size() { return sz; }
+
+    /** @return number of ints the queue holds before growing */
+    public int capacity() { return data.length; }
+
+    /** @return true if the queue is empty */
+    public boolean isEmpty() { return sz == 0; }
+
+    /** Adds an int at the rear of the queue, doubling the array if it is full */
+    public void enqueue(int x) {
+        if (sz == data.length) grow();
+        data[(f + sz) & mask] = x;
+        sz++;
+    }
+
+    /** @return the front int @throws NoSuchElementException if the queue is empty */
+    public int first() throws NoSuchElementException {
+        if (sz == 0) throw new NoSuchElementException("Queue is empty");
+        return data[f];
+    }
+
+    /** Removes and returns the front int @return that int @throws NoSuchElementException if the queue is empty */
+    public int dequeue() throws NoSuchElementException {
+        int answer = first();
+        f = (f + 1) & mask;
+        sz--;
+        return answer;
+    }
+
+    /** Removes every int, keeping the array for reuse */
+    public void clear() {
+        f = 0;
+        sz = 0;
+    }
+
+    /** Doubles the array, unwrapping the ints to the front of it */
+    private void grow() {
+        int[] old = data;
+        data = new int[2 * old.length];
+        for (int k = 0; k < sz; k++) data[k] = old[(f + k) & mask];
+        mask = data.length - 1;
+        f = 0;
+    }
+}
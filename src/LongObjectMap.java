@@ -0,0 +1,185 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Hash map from long keys, such as 64-bit student ids, to objects, stored in parallel arrays without boxing the keys.
+ *
+ * The primitive methods getLong, putLong, removeLong and containsKey should be preferred;
+ * the methods of the Map interface take boxed Long keys. Slots are probed linearly in a power-of-two table and
+ * removal shifts later entries back. Key 0 marks an empty slot, so an entry with key 0 is kept outside the table.
+ */
+public class LongObjectMap<V> extends AbstractMap<Long,V> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    // Instance variables
+    private long[] keys;        // 0 marks an empty slot
+    private Object[] vals;
+    private boolean hasZeroKey = false;
+    private V zeroValue;
+    private int shift;          // home slot of key k is mixed(k) >>> shift
+    private int mask;           // table length - 1
+    private int n = 0;          // number of entries, including any zero key
+
+    // Constructors
+
+    /** Creates an empty map */
+    public LongObjectMap() { this(DEFAULT_CAPACITY / 2); }
+
+    /**
+     * Creates an empty map that holds the given number of entries without growing
+     * @param expected number of entries expected
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public LongObjectMap(int expected) throws IllegalArgumentException {
+        if (expected < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = DEFAULT_CAPACITY;
+        while (cap - cap / 4 < expected) cap <<= 1;
+        createTable(cap);
+    }
+
+    private void createTable(int cap) {
+        keys = new long[cap];
+        vals = new Object[cap];
+        mask = cap - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(cap);
+    }
+
+    /** @return number of entries in the map */
+    @Override
+    public int size() { return n; }
+
+    /** @return true if key is in the map */
+    public boolean containsKey(long key) { return key == 0 ? hasZeroKey : find(key) >= 0; }
+
+    /**
+     * Returns the value stored at the given key
+     * @param key a key in the map
+     * @return the value stored at key, or null if key is not in the map
+     */
+    public V getLong(long key) {
+        if (key == 0) return zeroValue;
+        int j = find(key);
+        return (j < 0) ? null : (V) vals[j];
+    }
+
+    /**
+     * Stores a key/value pair, replacing any value already stored at key
+     * @param key the key
+     * @param value the value to be stored at key
+     * @return the value previously stored at key, or null if there was none
+     */
+    public V putLong(long key, V value) {
+        if (key == 0) {
+            V old = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) n++;
+            hasZeroKey = true;
+            return old;
+        }
+        int j = home(key);
+        while (keys[j] != 0) {
+            if (keys[j] == key) {
+                V old = (V) vals[j];
+                vals[j] = value;
+                return old;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[j] = key;
+        vals[j] = value;
+        if (++n > mask + 1 - (mask + 1) / 4) resize();      // load factor 3/4
+        return null;
+    }
+
+    /**
+     * Removes the given key from the map
+     * @param key the key to be removed
+     * @return the value stored at the removed key, or null if key was not in the map
+     */
+    public V removeLong(long key) {
+        if (key == 0) {
+            V old = zeroValue;
+            if (hasZeroKey) n--;
+            hasZeroKey = false;
+            zeroValue = null;
+            return old;
+        }
+        int j = find(key);
+        if (j < 0) return null;
+        V answer = (V) vals[j];
+        for (int i = (j + 1) & mask; keys[i] != 0; i = (i + 1) & mask) {
+            if (((i - home(keys[i])) & mask) >= ((i - j) & mask)) {
+                keys[j] = keys[i];
+                vals[j] = vals[i];
+                j = i;
+            }
+        }
+        keys[j] = 0;
+        vals[j] = null;
+        n--;
+        return answer;
+    }
+
+    /** @return the value stored at key, or null if key is null or not in the map */
+    @Override
+    public V get(Long key) { return (key == null) ? null : getLong(key); }
+
+    /** @throws IllegalArgumentException if key is null */
+    @Override
+    public V put(Long key, V value) throws IllegalArgumentException {
+        if (key == null) throw new IllegalArgumentException("Null key");
+        return putLong(key, value);
+    }
+
+    @Override
+    public V remove(Long key) { return (key == null) ? null : removeLong(key); }
+
+    /** @return an iterable collection of the entries in the map, read lazily from the table */
+    @Override
+    public Iterable<Entry<Long,V>> entrySet() { return EntryIterator::new; }
+
+    // Private utilities
+
+    private int home(long key) { return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift); }
+
+    /** @return slot holding the non-zero key, or -1 if it is not in the map */
+    private int find(long key) {
+        for (int j = home(key); keys[j] != 0; j = (j + 1) & mask)
+            if (keys[j] == key) return j;
+        return -1;
+    }
+
+    /** Doubles the table, moving every entry straight into the new arrays */
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldVals = vals;
+        createTable(2 * oldKeys.length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == 0) continue;
+            int j = home(oldKeys[i]);
+            while (keys[j] != 0) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            vals[j] = oldVals[i];
+        }
+    }
+
+    // Nested EntryIterator class
+    private class EntryIterator implements Iterator<Entry<Long,V>> {
+        private int j = hasZeroKey ? -1 : 0;    // next slot to examine; -1 stands for the zero key
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            if (j < 0) return true;
+            while (j < keys.length && keys[j] == 0) j++;
+            return j < keys.length;
+        }
+
+        /** @return next entry in the map */
+        public Entry<Long,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry<Long,V> e = (j < 0) ? new MapEntry<>(0L, zeroValue) : new MapEntry<>(keys[j], (V) vals[j]);
+            j++;
+            return e;
+        }
+    }
+}
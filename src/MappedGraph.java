@@ -0,0 +1,386 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only graph queried in place from a memory-mapped file.
+ * Nothing but the header is copied onto the heap when the file is opened; pages of the file are read
+ * by the operating system as they are touched, and processes mapping the same file share them in the page cache.
+ *
+ * The file (big-endian, every section 8-byte aligned) holds a header of section positions, then
+ * CSR row offsets (long per vertex + 1), neighbor ids and edge numbers (int per slot),
+ * the same three sections for incoming edges of a directed graph, both endpoints of each edge,
+ * an int attribute column per edge, and the encoded vertex elements with a long offset index.
+ * Vertices and edges are handed out as light objects created on demand.
+ */
+public class MappedGraph<V, E> implements Graph<V, E> {
+    /** "ALGM" */
+    public static final int MAGIC = 0x414C474D;
+    public static final int VERSION = 1;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int HEADER_SIZE = 24 + 11 * 8;
+
+    /** A file mapped as a sequence of 1 GB buffers, addressed by long offsets */
+    private static class MappedRegion {
+        private static final int SEGMENT_BITS = 30;
+        private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+        private final MappedByteBuffer[] segments;
+
+        MappedRegion(FileChannel channel) throws IOException {
+            long size = channel.size();
+            segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = (long) i << SEGMENT_BITS;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(1L << SEGMENT_BITS, size - start));
+            }
+        }
+
+        /** Reads an int at a 4-byte aligned offset, which never straddles two segments */
+        int getInt(long pos) { return segments[(int) (pos >>> SEGMENT_BITS)].getInt((int) (pos & SEGMENT_MASK)); }
+
+        /** Reads a long at an 8-byte aligned offset, which never straddles two segments */
+        long getLong(long pos) { return segments[(int) (pos >>> SEGMENT_BITS)].getLong((int) (pos & SEGMENT_MASK)); }
+
+        /** @return a read-only view of the given bytes, copied only if they straddle two segments */
+        ByteBuffer slice(long pos, int length) {
+            int seg = (int) (pos >>> SEGMENT_BITS), off = (int) (pos & SEGMENT_MASK);
+            if (off + length <= segments[seg].capacity()) return segments[seg].duplicate().position(off).limit(off + length).slice();
+            ByteBuffer copy = ByteBuffer.allocate(length);
+            for (int j = 0; j < length; j++) {
+                long p = pos + j;
+                copy.put(segments[(int) (p >>> SEGMENT_BITS)].get((int) (p & SEGMENT_MASK)));
+            }
+            return copy.flip().asReadOnlyBuffer();
+        }
+    }
+
+    /** A vertex of the mapped graph, identified by its row number */
+    private class MappedVertex implements Vertex<V> {
+        private final int id;
+
+        MappedVertex(int id) { this.id = id; }
+
+        /** @return element stored at vertex, decoded from the file on every call */
+        public V getElement() { return vertexElement(id); }
+
+        public boolean equals(Object o) {
+            return o instanceof MappedGraph.MappedVertex && ((MappedVertex) o).id == id && ((MappedVertex) o).owner() == MappedGraph.this;
+        }
+
+        public int hashCode() { return id; }
+
+        private MappedGraph<V, E> owner() { return MappedGraph.this; }
+    }
+
+    /** An edge of the mapped graph, identified by its edge number */
+    private class MappedEdge implements Edge<E> {
+        private final int id;
+
+        MappedEdge(int id) { this.id = id; }
+
+        /** @return element decoded from the edge's attribute */
+        public E getElement() { return edgeDecoder.apply(attribute(id)); }
+
+        public boolean equals(Object o) {
+            return o instanceof MappedGraph.MappedEdge && ((MappedEdge) o).id == id && ((MappedEdge) o).owner() == MappedGraph.this;
+        }
+
+        public int hashCode() { return id; }
+
+        private MappedGraph<V, E> owner() { return MappedGraph.this; }
+    }
+
+    // Instance variables
+    private final MappedRegion region;
+    private final Function<ByteBuffer, V> vertexDecoder;
+    private final IntFunction<E> edgeDecoder;
+    private final boolean isDirected;
+    private final int n, m;
+    private final long offsetsPos, neighborsPos, slotEdgesPos, inOffsetsPos, inNeighborsPos, inSlotEdgesPos,
+            endpointsPos, attributesPos, payloadIndexPos, payloadPos;
+
+    private MappedGraph(MappedRegion region, Function<ByteBuffer, V> vertexDecoder, IntFunction<E> edgeDecoder) throws IOException {
+        this.region = region;
+        this.vertexDecoder = vertexDecoder;
+        this.edgeDecoder = edgeDecoder;
+        if (region.segments.length == 0 || region.segments[0].capacity() < HEADER_SIZE || region.getInt(0) != MAGIC)
+            throw new IOException("Not a mapped graph file");
+        if (region.getInt(4) != VERSION) throw new IOException("Unsupported mapped graph version " + region.getInt(4));
+        isDirected = (region.getInt(8) & FLAG_DIRECTED) != 0;
+        n = region.getInt(12);
+        m = region.getInt(16);
+        long pos = 24;
+        offsetsPos = region.getLong(pos);
+        neighborsPos = region.getLong(pos += 8);
+        slotEdgesPos = region.getLong(pos += 8);
+        inOffsetsPos = region.getLong(pos += 8);
+        inNeighborsPos = region.getLong(pos += 8);
+        inSlotEdgesPos = region.getLong(pos += 8);
+        endpointsPos = region.getLong(pos += 8);
+        attributesPos = region.getLong(pos += 8);
+        payloadIndexPos = region.getLong(pos += 8);
+        payloadPos = region.getLong(pos += 8);
+        long end = region.getLong(pos + 8);
+        long size = ((long) (region.segments.length - 1) << MappedRegion.SEGMENT_BITS) + region.segments[region.segments.length - 1].capacity();
+        if (end != size) throw new IOException("Mapped graph file is truncated");
+    }
+
+    /**
+     * Maps a graph file written by write. The file stays mapped until this object is garbage collected.
+     * @param path the file to map
+     * @param vertexDecoder builds a vertex element from its encoded bytes
+     * @param edgeDecoder builds an edge element from its int attribute
+     * @return a read-only graph over the file
+     * @throws IOException if the file cannot be mapped or is not a mapped graph file
+     */
+    public static <V, E> MappedGraph<V, E> open(Path path, Function<ByteBuffer, V> vertexDecoder,
+                                                IntFunction<E> edgeDecoder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedGraph<>(new MappedRegion(channel), vertexDecoder, edgeDecoder);   // mappings outlive the channel
+        }
+    }
+
+    /**
+     * Writes a CSR snapshot in the mapped graph format
+     * @param path the file to write, replaced if it exists
+     * @param g the snapshot to be written
+     * @param vertexEncoder encodes each vertex element as bytes
+     * @param edgeAttribute extracts the int attribute stored for each edge element
+     * @throws IOException if the file cannot be written
+     */
+    public static <V, E> void write(Path path, CsrGraph<V, E> g, Function<V, byte[]> vertexEncoder,
+                                    ToIntFunction<E> edgeAttribute) throws IOException {
+        int n = g.numVertices(), m = g.numEdges();
+        long slots = g.offsets()[n];
+        byte[][] payloads = new byte[n][];
+        long payloadBytes = 0;
+        for (int i = 0; i < n; i++) {
+            payloads[i] = vertexEncoder.apply(g.vertexAt(i).getElement());
+            payloadBytes += payloads[i].length;
+        }
+
+        // section layout
+        long pos = HEADER_SIZE;
+        long offsetsPos = pos, neighborsPos = pos += 8L * (n + 1), slotEdgesPos = pos += align(4 * slots);
+        long inOffsetsPos = offsetsPos, inNeighborsPos = neighborsPos, inSlotEdgesPos = slotEdgesPos;
+        pos += align(4 * slots);
+        if (g.isDirected()) {
+            inOffsetsPos = pos;
+            inNeighborsPos = pos += 8L * (n + 1);
+            inSlotEdgesPos = pos += align(4L * m);
+            pos += align(4L * m);
+        }
+        long endpointsPos = pos, attributesPos = pos += 8L * m, payloadIndexPos = pos += align(4L * m);
+        long payloadPos = pos += 8L * (n + 1), end = pos + align(payloadBytes);
+
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            GraphSnapshot.Output out = new GraphSnapshot.Output(channel);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(g.isDirected() ? FLAG_DIRECTED : 0);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeInt(0);
+            for (long p : new long[]{offsetsPos, neighborsPos, slotEdgesPos, inOffsetsPos, inNeighborsPos, inSlotEdgesPos,
+                    endpointsPos, attributesPos, payloadIndexPos, payloadPos, end}) out.writeLong(p);
+
+            writeRows(out, g.offsets(), g.neighbors(), g.slotEdges());
+            if (g.isDirected()) writeRows(out, g.inOffsets(), g.inNeighbors(), g.inSlotEdges());
+            for (int k = 0; k < m; k++) {
+                out.writeInt(g.edgeOrigin(k));
+                out.writeInt(g.edgeDestination(k));
+            }
+            for (int k = 0; k < m; k++) out.writeInt(edgeAttribute.applyAsInt(g.edgeElement(k)));
+            pad(out, 4L * m);
+            long offset = 0;
+            for (int i = 0; i < n; i++) {
+                out.writeLong(offset);
+                offset += payloads[i].length;
+            }
+            out.writeLong(offset);
+            for (byte[] payload : payloads) out.writeBytes(payload);
+            pad(out, payloadBytes);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Writes one direction of CSR adjacency: widened offsets, neighbors, then edge numbers */
+    private static void writeRows(GraphSnapshot.Output out, int[] offsets, int[] neighbors, int[] slotEdges) throws IOException {
+        for (int offset : offsets) out.writeLong(offset);
+        int slots = offsets[offsets.length - 1];
+        for (int s = 0; s < slots; s++) out.writeInt(neighbors[s]);
+        pad(out, 4L * slots);
+        for (int s = 0; s < slots; s++) out.writeInt(slotEdges[s]);
+        pad(out, 4L * slots);
+    }
+
+    /** @return length rounded up to a multiple of 8 */
+    private static long align(long length) { return (length + 7) & ~7L; }
+
+    /** Writes zero bytes to bring a section of given length to a multiple of 8 */
+    private static void pad(GraphSnapshot.Output out, long length) throws IOException {
+        for (long j = length; j < align(length); j++) out.writeByte(0);
+    }
+
+    // In place accessors
+
+    /** @return index of the first neighbor slot of row v; the row ends at rowStart(v + 1) */
+    public long rowStart(int v) { return region.getLong(offsetsPos + 8L * v); }
+
+    /** @return neighbor id stored in slot s */
+    public int neighbor(long s) { return region.getInt(neighborsPos + 4 * s); }
+
+    /** @return edge number stored in slot s */
+    public int slotEdge(long s) { return region.getInt(slotEdgesPos + 4 * s); }
+
+    /** @return int attribute of edge k */
+    public int attribute(int k) { return region.getInt(attributesPos + 4L * k); }
+
+    /** @return element of vertex v, decoded from a view of its bytes in the mapping */
+    public V vertexElement(int v) {
+        long from = region.getLong(payloadIndexPos + 8L * v), to = region.getLong(payloadIndexPos + 8L * (v + 1));
+        return vertexDecoder.apply(region.slice(payloadPos + from, (int) (to - from)));
+    }
+
+    /** @return true if the mapped graph is directed */
+    public boolean isDirected() { return isDirected; }
+
+    // private utilities
+
+    private int validate(Vertex<V> v) throws IllegalArgumentException {
+        if (!(v instanceof MappedGraph.MappedVertex) || ((MappedVertex) v).owner() != this) throw new IllegalArgumentException("Invalid vertex");
+        return ((MappedVertex) v).id;
+    }
+
+    private int validate(Edge<E> e) throws IllegalArgumentException {
+        if (!(e instanceof MappedGraph.MappedEdge) || ((MappedEdge) e).owner() != this) throw new IllegalArgumentException("Invalid edge");
+        return ((MappedEdge) e).id;
+    }
+
+    /** Returns the edges in a row of the given direction as an iterable of Positions */
+    private Iterable<Position<Edge<E>>> rowPositions(long offsPos, long edgesPos, int v) {
+        long from = region.getLong(offsPos + 8L * v), to = region.getLong(offsPos + 8L * (v + 1));
+        ArrayList<Position<Edge<E>>> answer = new ArrayList<>((int) (to - from));
+        for (long s = from; s < to; s++) {
+            Edge<E> edge = new MappedEdge(region.getInt(edgesPos + 4 * s));
+            answer.add(() -> edge);
+        }
+        return answer;
+    }
+
+    // Graph methods
+
+    public int numVertices() { return n; }
+
+    public Iterable<Vertex<V>> vertices() {
+        return () -> new Iterator<Vertex<V>>() {
+            private int i = 0;
+            public boolean hasNext() { return i < n; }
+            public Vertex<V> next() {
+                if (i == n) throw new NoSuchElementException("nothing left");
+                return new MappedVertex(i++);
+            }
+        };
+    }
+
+    public int numEdges() { return m; }
+
+    public Iterable<Edge<E>> edges() {
+        return () -> new Iterator<Edge<E>>() {
+            private int k = 0;
+            public boolean hasNext() { return k < m; }
+            public Edge<E> next() {
+                if (k == m) throw new NoSuchElementException("nothing left");
+                return new MappedEdge(k++);
+            }
+        };
+    }
+
+    public int vertexId(Vertex<V> v) throws IllegalArgumentException { return validate(v); }
+
+    public Vertex<V> vertexAt(int id) { return (id < 0 || id >= n) ? null : new MappedVertex(id); }
+
+    public int vertexIdBound() { return n; }
+
+    public int edgeId(Edge<E> e) throws IllegalArgumentException { return validate(e); }
+
+    public Edge<E> edgeAt(int id) { return (id < 0 || id >= m) ? null : new MappedEdge(id); }
+
+    public int edgeIdBound() { return m; }
+
+    /**
+     * Returns the edge from u to v using a binary search of u's row in the mapping
+     * @return edge from u to v, or null if they are not adjacent
+     */
+    public Edge<E> getEdge(Vertex<V> u, Vertex<V> v) throws IllegalArgumentException {
+        int from = validate(u), to = validate(v);
+        long lo = rowStart(from), hi = rowStart(from + 1) - 1;
+        while (lo <= hi) {
+            long mid = (lo + hi) >>> 1;
+            int nb = neighbor(mid);
+            if (nb < to) lo = mid + 1;
+            else if (nb > to) hi = mid - 1;
+            else return new MappedEdge(slotEdge(mid));
+        }
+        return null;
+    }
+
+    public Vertex<V>[] endVertices(Edge<E> e) throws IllegalArgumentException {
+        int k = validate(e);
+        return (Vertex<V>[]) new Vertex[]{new MappedVertex(region.getInt(endpointsPos + 8L * k)),
+                new MappedVertex(region.getInt(endpointsPos + 8L * k + 4))};
+    }
+
+    public Vertex<V> opposite(Vertex<V> v, Edge<E> e) throws IllegalArgumentException {
+        int id = validate(v), k = validate(e);
+        int origin = region.getInt(endpointsPos + 8L * k), dest = region.getInt(endpointsPos + 8L * k + 4);
+        if (origin == id) return new MappedVertex(dest);
+        else if (dest == id) return new MappedVertex(origin);
+        else throw new IllegalArgumentException("v is not incident to this edge");
+    }
+
+    public int outDegree(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return (int) (rowStart(id + 1) - rowStart(id));
+    }
+
+    public int inDegree(Vertex<V> v) throws IllegalArgumentException {
+        int id = validate(v);
+        return (int) (region.getLong(inOffsetsPos + 8L * (id + 1)) - region.getLong(inOffsetsPos + 8L * id));
+    }
+
+    public Iterable<Position<Edge<E>>> outgoingEdges(Vertex<V> v) throws IllegalArgumentException {
+        return rowPositions(offsetsPos, slotEdgesPos, validate(v));
+    }
+
+    public Iterable<Position<Edge<E>>> incomingEdges(Vertex<V> v) throws IllegalArgumentException {
+        return rowPositions(inOffsetsPos, inSlotEdgesPos, validate(v));
+    }
+
+    /** Not supported, the mapped graph is read-only */
+    public Vertex<V> insertVertex(V element) { throw new UnsupportedOperationException("mapped graph is read-only"); }
+
+    /** Not supported, the mapped graph is read-only */
+    public Edge<E> insertEdge(Vertex<V> u, Vertex<V> v, E element) { throw new UnsupportedOperationException("mapped graph is read-only"); }
+
+    /** Not supported, the mapped graph is read-only */
+    public void removeVertex(Vertex<V> v) { throw new UnsupportedOperationException("mapped graph is read-only"); }
+
+    /** Not supported, the mapped graph is read-only */
+    public void removeEdge(Edge<E> e) { throw new UnsupportedOperationException("mapped graph is read-only"); }
+}
@@ -0,0 +1,365 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of the changes made to an AdjacencyListGraph since its last snapshot.
+ *
+ * Every insertVertex, insertEdge, removeVertex and removeEdge on the graph is appended to the log as a record
+ * (length, type, payload, CRC32C) before the graph is changed, so a change whose record cannot be encoded or written
+ * fails with UncheckedIOException and leaves the graph as it was. Records are buffered and forced to disk together, once a group of them has
+ * accumulated or a delay has passed, so a crash loses at most the last unforced group and never a partial record.
+ * On open the log is replayed on top of its base snapshot, a torn final record is cut off,
+ * and compact folds everything into a new snapshot and starts an empty log.
+ *
+ * Vertices and edges are named in the log by vertex id, which replay reproduces exactly because
+ * snapshots preserve vertex ids and their free-list.
+ */
+public class MutationLog<V, E> implements AutoCloseable {
+    /** "ALGW" */
+    public static final int MAGIC = 0x414C4757;
+    public static final int VERSION = 1;
+    /** Default number of records forced to disk together */
+    public static final int DEFAULT_GROUP_SIZE = 1024;
+    /** Default longest time, in milliseconds, a record waits to be forced to disk */
+    public static final long DEFAULT_MAX_DELAY = 100;
+    private static final int HEADER_SIZE = 16;
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final byte INSERT_VERTEX = 1, INSERT_EDGE = 2, REMOVE_VERTEX = 3, REMOVE_EDGE = 4;
+
+    /** Growable in-memory channel on which a single record is staged */
+    private static class RecordBuffer implements WritableByteChannel {
+        private byte[] bytes = new byte[256];
+        private int size = 0;
+
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            if (size + n > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(2 * bytes.length, size + n));
+            src.get(bytes, size, n);
+            size += n;
+            return n;
+        }
+
+        public boolean isOpen() { return true; }
+
+        public void close() { }
+    }
+
+    // Instance variables
+    private final AdjacencyListGraph<V, E> graph;
+    private final Path snapshotPath, logPath;
+    private final ElementCodec<V> vertexCodec;
+    private final ElementCodec<E> edgeCodec;
+    private FileChannel channel;
+    private GraphSnapshot.Output out;
+    private final RecordBuffer staged = new RecordBuffer();
+    private final GraphSnapshot.Output record = new GraphSnapshot.Output(staged, 4096);
+    private final CRC32C crc = new CRC32C();
+    private int groupSize = DEFAULT_GROUP_SIZE;
+    private int unforced = 0;           // records appended since the last force
+    private ScheduledExecutorService flusher;
+    private boolean closed = false;
+    private IOException failure;        // set once a write fails; no further records are accepted
+
+    private MutationLog(AdjacencyListGraph<V, E> graph, Path snapshotPath, Path logPath,
+                        ElementCodec<V> vertexCodec, ElementCodec<E> edgeCodec) {
+        this.graph = graph;
+        this.snapshotPath = snapshotPath;
+        this.logPath = logPath;
+        this.vertexCodec = vertexCodec;
+        this.edgeCodec = edgeCodec;
+    }
+
+    /**
+     * Recovers a graph from its snapshot and log, and starts logging further changes to it.
+     * A missing snapshot stands for an empty graph and a missing log for one with no changes.
+     * A log left over from a compaction that finished writing its snapshot is recognised and discarded.
+     * @param snapshotPath the base snapshot, written by compact
+     * @param logPath the log of changes since the snapshot
+     * @param directed whether a graph created from scratch is directed
+     * @param vertexCodec reads and writes vertex elements
+     * @param edgeCodec reads and writes edge elements
+     * @return the log, whose graph() holds the recovered graph
+     * @throws IOException if either file cannot be read, or the log does not apply to the snapshot
+     */
+    public static <V, E> MutationLog<V, E> open(Path snapshotPath, Path logPath, boolean directed,
+                                                ElementCodec<V> vertexCodec, ElementCodec<E> edgeCodec) throws IOException {
+        AdjacencyListGraph<V, E> g;
+        long base = 0;
+        if (Files.exists(snapshotPath)) {
+            g = GraphSnapshot.load(snapshotPath, vertexCodec, edgeCodec);
+            base = GraphSnapshot.storedChecksum(snapshotPath);
+        } else g = new AdjacencyListGraph<>(directed, true);
+
+        MutationLog<V, E> log = new MutationLog<>(g, snapshotPath, logPath, vertexCodec, edgeCodec);
+        long end = Files.exists(logPath) ? log.replay(base) : -1;
+        if (end < 0) log.startLog(base);
+        else {
+            log.channel = FileChannel.open(logPath, StandardOpenOption.WRITE);
+            if (log.channel.size() > end) {     // cut off a torn final record
+                log.channel.truncate(end);
+                log.channel.force(true);
+            }
+            log.channel.position(end);
+            log.out = new GraphSnapshot.Output(log.channel, BUFFER_SIZE);
+        }
+        log.setGroupCommit(DEFAULT_GROUP_SIZE, DEFAULT_MAX_DELAY);
+        g.setMutationLog(log);
+        return log;
+    }
+
+    /** @return the graph whose changes are logged */
+    public AdjacencyListGraph<V, E> graph() { return graph; }
+
+    /**
+     * Sets when buffered records are forced to disk
+     * @param groupSize number of records forced together, 1 to force every record as it is appended
+     * @param maxDelay longest time in milliseconds a record may wait to be forced, 0 for no limit
+     * @throws IllegalArgumentException if groupSize is less than 1 or maxDelay is negative
+     */
+    public synchronized void setGroupCommit(int groupSize, long maxDelay) throws IllegalArgumentException {
+        if (groupSize < 1 || maxDelay < 0) throw new IllegalArgumentException("Invalid group commit settings");
+        this.groupSize = groupSize;
+        if (flusher != null) flusher.shutdown();
+        flusher = null;
+        if (maxDelay > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "mutation-log-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            flusher.scheduleWithFixedDelay(this::syncQuietly, maxDelay, maxDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Forces every record appended so far to disk
+     * @throws IOException if the log cannot be written
+     */
+    public synchronized void sync() throws IOException {
+        if (closed || unforced == 0) return;
+        out.flush();
+        channel.force(false);
+        unforced = 0;
+    }
+
+    /** Forces the log from the background flusher, where a failure surfaces again at the next sync */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException ignored) { }
+    }
+
+    /**
+     * Writes the current graph as a new base snapshot and empties the log.
+     * Each step replaces its file atomically; if a crash leaves the new snapshot beside the old log,
+     * open recognises the log as already compacted.
+     * @throws IOException if the snapshot or log cannot be written
+     */
+    public synchronized void compact() throws IOException {
+        checkOpen();
+        sync();
+        GraphSnapshot.save(graph, snapshotPath, vertexCodec, edgeCodec);
+        channel.close();
+        startLog(GraphSnapshot.storedChecksum(snapshotPath));
+    }
+
+    /**
+     * Forces outstanding records to disk and stops logging; later changes to the graph are not recorded
+     * @throws IOException if the log cannot be written
+     */
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        if (flusher != null) flusher.shutdown();
+        try {
+            sync();
+        } finally {
+            closed = true;
+            graph.setMutationLog(null);
+            channel.close();
+        }
+    }
+
+    // Recording, called by the graph before each change so that a change that cannot be logged is not made
+
+    synchronized void insertingVertex(int id, V element) {
+        try {
+            beginRecord(INSERT_VERTEX);
+            record.writeInt(id);
+            vertexCodec.write(element, record);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void insertingEdge(int originId, int destId, E element) {
+        try {
+            beginRecord(INSERT_EDGE);
+            record.writeInt(originId);
+            record.writeInt(destId);
+            edgeCodec.write(element, record);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void removingVertex(int id) {
+        try {
+            beginRecord(REMOVE_VERTEX);
+            record.writeInt(id);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void removingEdge(int originId, int destId) {
+        try {
+            beginRecord(REMOVE_EDGE);
+            record.writeInt(originId);
+            record.writeInt(destId);
+            append();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // private utilities
+
+    private void checkOpen() throws IOException {
+        if (closed) throw new IOException("Mutation log is closed");
+        if (failure != null) throw new IOException("Mutation log failed on an earlier write", failure);
+    }
+
+    /** Starts staging a record of the given type; called with the lock held */
+    private void beginRecord(byte type) throws IOException {
+        checkOpen();
+        record.flush();         // discard anything left by a record whose element failed to encode
+        staged.size = 0;
+        record.writeByte(type);
+    }
+
+    /**
+     * Frames the staged record with its length and checksum, appends it, and forces the group if it is full;
+     * called with the lock held. A failed write may have left some or all of the record in the file, so it refuses
+     * every later record; reopening the log cuts off a torn record but replays a complete one.
+     */
+    private void append() throws IOException {
+        record.flush();
+        crc.reset();
+        crc.update(staged.bytes, 0, staged.size);
+        try {
+            out.writeInt(staged.size);
+            out.writeBytes(staged.bytes, 0, staged.size);
+            out.writeInt((int) crc.getValue());
+            if (++unforced >= groupSize) sync();
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /** Replaces the log file with an empty one based on the snapshot with the given checksum, and appends to it */
+    private void startLog(long base) throws IOException {
+        Path partial = logPath.resolveSibling(logPath.getFileName() + ".partial");
+        try (FileChannel fresh = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putLong(base).flip();
+            while (header.hasRemaining()) fresh.write(header);
+            fresh.force(true);
+        }
+        Files.move(partial, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(logPath, StandardOpenOption.WRITE);
+        channel.position(HEADER_SIZE);
+        out = new GraphSnapshot.Output(channel, BUFFER_SIZE);
+        unforced = 0;
+    }
+
+    /**
+     * Applies the log's records to the graph, stopping at the first incomplete or corrupt record
+     * @param base checksum of the snapshot the graph was loaded from
+     * @return offset just past the last intact record, or -1 if the log does not belong to the snapshot
+     * @throws IOException if the log cannot be read, or an intact record cannot be applied
+     */
+    private long replay(long base) throws IOException {
+        try (FileChannel in = FileChannel.open(logPath, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size < HEADER_SIZE) return -1;      // crashed while creating the log
+            GraphSnapshot.Input log = new GraphSnapshot.Input(in, size);
+            if (log.readInt() != MAGIC) throw new IOException("Not a mutation log");
+            int version = log.readInt();
+            if (version != VERSION) throw new IOException("Unsupported mutation log version " + version);
+            if (log.readLong() != base) return -1;  // written before the snapshot was compacted
+
+            long end = log.position();
+            while (size - end >= 4) {
+                int length = log.readInt();
+                if (length < 1 || length > size - end - 8) break;
+                byte[] bytes = new byte[length];
+                log.readBytes(bytes);
+                crc.reset();
+                crc.update(bytes, 0, length);
+                if (log.readInt() != (int) crc.getValue()) break;
+                apply(new GraphSnapshot.Input(ByteBuffer.wrap(bytes)));
+                end = log.position();
+            }
+            return end;
+        }
+    }
+
+    /** Applies one intact record to the graph */
+    private void apply(GraphSnapshot.Input record) throws IOException {
+        try {
+            byte type = record.readByte();
+            switch (type) {
+                case INSERT_VERTEX: {
+                    int id = record.readInt();
+                    if (graph.vertexId(graph.insertVertex(vertexCodec.read(record))) != id)
+                        throw new IOException("Mutation log does not match its snapshot");
+                    break;
+                }
+                case INSERT_EDGE: {
+                    Vertex<V> u = vertex(record.readInt()), v = vertex(record.readInt());
+                    graph.insertEdge(u, v, edgeCodec.read(record));
+                    break;
+                }
+                case REMOVE_VERTEX:
+                    graph.removeVertex(vertex(record.readInt()));
+                    break;
+                case REMOVE_EDGE: {
+                    Vertex<V> u = vertex(record.readInt()), v = vertex(record.readInt());
+                    Edge<E> e = graph.getEdge(u, v);
+                    if (e == null) throw new IOException("Mutation log removes a missing edge");
+                    graph.removeEdge(e);
+                    break;
+                }
+                default:
+                    throw new IOException("Unknown mutation log record type " + type);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Mutation log does not match its snapshot", e);
+        }
+    }
+
+    /** @return the vertex with given id, which a record must name */
+    private Vertex<V> vertex(int id) throws IOException {
+        Vertex<V> v = graph.vertexAt(id);
+        if (v == null) throw new IOException("Mutation log names missing vertex " + id);
+        return v;
+    }
+}
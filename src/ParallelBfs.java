@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntPredicate;
+
+/**
+ * Level-synchronous parallel breadth-first search over a CSR snapshot, direction optimizing in the style of Beamer et al.
+ *
+ * Small frontiers are expanded top-down: each frontier vertex claims its unvisited neighbors in a shared visited bitmap.
+ * Once the edges leaving the frontier outnumber a fraction of those leaving unvisited vertices, levels are
+ * expanded bottom-up instead: each unvisited vertex looks for any parent in the frontier and stops at the first,
+ * which skips most edges in the middle levels of a low-diameter social graph.
+ * Each level is split into chunks that run as tasks of a ForkJoinPool.
+ */
+public class ParallelBfs {
+    /** Switch to bottom-up once frontier edges exceed unexplored edges / ALPHA */
+    private static final int ALPHA = 14;
+    /** Switch back to top-down once the frontier holds fewer than n / BETA vertices */
+    private static final int BETA = 24;
+    /** Fewest frontier vertices or vertex ids handled by one task */
+    private static final int MIN_CHUNK = 4096;
+
+    /** Vertices reached by a search */
+    public static class Result {
+        private final int[] depth, parent, order;
+        private final int reached;
+
+        Result(int[] depth, int[] parent, int[] order, int reached) {
+            this.depth = depth;
+            this.parent = parent;
+            this.order = order;
+            this.reached = reached;
+        }
+
+        /** @return hop count from the source by vertex id, -1 where unreached */
+        public int[] depth() { return depth; }
+
+        /** @return BFS tree parent by vertex id: the source maps to itself, unreached vertices to -1 */
+        public int[] parent() { return parent; }
+
+        /** @return number of vertices reached, including the source */
+        public int reached() { return reached; }
+
+        /** @return ids of the reached vertices level by level; the order within a level is unspecified */
+        public int[] order() { return Arrays.copyOf(order, reached); }
+    }
+
+    /** Vertices found by one task during one level, with the sum of their out-degrees */
+    private static class Found {
+        private int[] items = new int[64];
+        private int size = 0;
+        private long degrees = 0;
+
+        private void add(int v, int degree) {
+            if (size == items.length) items = Arrays.copyOf(items, 2 * size);
+            items[size++] = v;
+            degrees += degree;
+        }
+    }
+
+    // Instance variables
+    private final int n;
+    private final int[] offsets, neighbors, inOffsets, inNeighbors;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray visited;      // includes vertices excluded by the predicate
+    private final int[] depth, parent, order;
+
+    private <V, E> ParallelBfs(CsrGraph<V, E> g, ForkJoinPool pool) {
+        n = g.numVertices();
+        offsets = g.offsets();
+        neighbors = g.neighbors();
+        inOffsets = g.inOffsets();
+        inNeighbors = g.inNeighbors();
+        this.pool = pool;
+        visited = new AtomicLongArray((n + 63) >>> 6);
+        depth = new int[n];
+        parent = new int[n];
+        order = new int[n];
+        Arrays.fill(depth, -1);
+        Arrays.fill(parent, -1);
+    }
+
+    /**
+     * Searches every vertex reachable from source along outgoing edges
+     * @param g the snapshot to be searched
+     * @param source the row number at which to begin the search
+     * @param pool the pool on which levels are expanded
+     * @return depths, parents and the reached vertices
+     */
+    public static <V, E> Result search(CsrGraph<V, E> g, int source, ForkJoinPool pool) {
+        return search(g, source, null, pool);
+    }
+
+    /**
+     * Searches the vertices reachable from source through vertices accepted by a predicate, such as
+     * the members of one college; rejected vertices are neither reached nor passed through
+     * @param g the snapshot to be searched
+     * @param source the row number at which to begin the search, reached whether or not it is accepted
+     * @param allowed accepts the row numbers of the vertices the search may enter, or null to accept all;
+     *                called concurrently, once per vertex
+     * @param pool the pool on which levels are expanded
+     * @return depths, parents and the reached vertices
+     * @throws IllegalArgumentException if source is not a row number of g
+     */
+    public static <V, E> Result search(CsrGraph<V, E> g, int source, IntPredicate allowed, ForkJoinPool pool)
+            throws IllegalArgumentException {
+        if (source < 0 || source >= g.numVertices()) throw new IllegalArgumentException("Invalid source");
+        return new ParallelBfs(g, pool).run(source, allowed);
+    }
+
+    private Result run(int source, IntPredicate allowed) {
+        long unexplored = offsets[n];           // edges leaving vertices not yet visited
+        if (allowed != null) unexplored -= exclude(allowed);
+        if (!isVisited(source)) unexplored -= degree(source);
+        visited.set(source >>> 6, visited.get(source >>> 6) | 1L << source);
+        depth[source] = 0;
+        parent[source] = source;
+        order[0] = source;
+
+        int levelStart = 0, levelEnd = 1, level = 0;
+        long frontierEdges = degree(source);
+        long[] frontierBits = null;             // frontier as a bitmap, kept while expanding bottom-up
+        while (levelStart < levelEnd) {
+            int frontierSize = levelEnd - levelStart;
+            if (frontierBits == null && frontierEdges > unexplored / ALPHA) {
+                frontierBits = new long[visited.length()];
+                for (int i = levelStart; i < levelEnd; i++) frontierBits[order[i] >>> 6] |= 1L << order[i];
+            } else if (frontierBits != null && frontierSize < n / BETA) frontierBits = null;
+
+            long[] nextBits = (frontierBits == null) ? null : new long[visited.length()];
+            ArrayList<Found> found = (frontierBits == null) ? topDown(levelStart, levelEnd, level + 1)
+                    : bottomUp(frontierBits, nextBits, level + 1);
+
+            // append the next level after this one, which makes it the new frontier
+            int next = levelEnd;
+            frontierEdges = 0;
+            for (Found f : found) {
+                System.arraycopy(f.items, 0, order, next, f.size);
+                next += f.size;
+                frontierEdges += f.degrees;
+            }
+            unexplored -= frontierEdges;
+            levelStart = levelEnd;
+            levelEnd = next;
+            frontierBits = nextBits;
+            level++;
+        }
+        return new Result(depth, parent, order, levelEnd);
+    }
+
+    /** Marks the vertices rejected by the predicate as visited, so no search enters them */
+    private long exclude(IntPredicate allowed) {
+        long excludedEdges = 0;
+        for (Found f : runChunks(visited.length(), (from, to, out) -> {
+            for (int w = from; w < to; w++) {
+                long bits = 0;
+                for (int v = w << 6, end = Math.min(n, v + 64); v < end; v++)
+                    if (!allowed.test(v)) {
+                        bits |= 1L << v;
+                        out.degrees += degree(v);
+                    }
+                visited.set(w, bits);
+            }
+        })) excludedEdges += f.degrees;
+        return excludedEdges;
+    }
+
+    /** Expands the frontier order[from..to) by having each frontier vertex claim its unvisited neighbors */
+    private ArrayList<Found> topDown(int from, int to, int nextDepth) {
+        return runChunks(to - from, (lo, hi, out) -> {
+            for (int i = from + lo; i < from + hi; i++) {
+                int u = order[i];
+                for (int s = offsets[u]; s < offsets[u + 1]; s++) {
+                    int v = neighbors[s];
+                    if (claim(v)) {
+                        depth[v] = nextDepth;
+                        parent[v] = u;
+                        out.add(v, degree(v));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Expands the frontier by having each unvisited vertex look for a parent among its in-neighbors.
+     * Tasks own whole 64-vertex words, so visited and nextBits are updated without contention.
+     */
+    private ArrayList<Found> bottomUp(long[] frontierBits, long[] nextBits, int nextDepth) {
+        return runChunks(visited.length(), (from, to, out) -> {
+            for (int w = from; w < to; w++) {
+                long seen = visited.get(w);
+                if (seen == -1L) continue;
+                long added = 0;
+                for (int v = w << 6, end = Math.min(n, v + 64); v < end; v++) {
+                    if ((seen & 1L << v) != 0) continue;
+                    for (int s = inOffsets[v]; s < inOffsets[v + 1]; s++) {
+                        int u = inNeighbors[s];
+                        if ((frontierBits[u >>> 6] & 1L << u) != 0) {
+                            depth[v] = nextDepth;
+                            parent[v] = u;
+                            added |= 1L << v;
+                            out.add(v, degree(v));
+                            break;
+                        }
+                    }
+                }
+                if (added != 0) {
+                    visited.set(w, seen | added);
+                    nextBits[w] = added;
+                }
+            }
+        });
+    }
+
+    /** Work done by one task over the index range [from, to) */
+    private interface ChunkBody {
+        void run(int from, int to, Found out);
+    }
+
+    /** Splits [0, size) into chunks, runs them on the pool and waits for all of them */
+    private ArrayList<Found> runChunks(int size, ChunkBody body) {
+        int chunks = Math.max(1, Math.min(4 * pool.getParallelism(), size / MIN_CHUNK));
+        ArrayList<ForkJoinTask<Found>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) size * c / chunks), to = (int) ((long) size * (c + 1) / chunks);
+            tasks.add(pool.submit(() -> {
+                Found out = new Found();
+                body.run(from, to, out);
+                return out;
+            }));
+        }
+        ArrayList<Found> answer = new ArrayList<>(chunks);
+        for (ForkJoinTask<Found> task : tasks) answer.add(task.join());
+        return answer;
+    }
+
+    /** Atomically sets the visited bit of v @return true if this call set it */
+    private boolean claim(int v) {
+        int w = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long bits = visited.get(w);
+            if ((bits & bit) != 0) return false;
+            if (visited.compareAndSet(w, bits, bits | bit)) return true;
+        }
+    }
+
+    private boolean isVisited(int v) { return (visited.get(v >>> 6) & 1L << v) != 0; }
+
+    private int degree(int v) { return offsets[v + 1] - offsets[v]; }
+}
@@ -1,4 +1,6 @@
-import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
 public class ProbeHashMap<K,V> extends AbstractHashMap<K,V> {
     // Instance variables
@@ -92,12 +94,80 @@ public class ProbeHashMap<K,V> extends AbstractHashMap<K,V> {
     }
 
     /**
-     * @return an iterable collection of entries in Map
+     * Moves every entry into a new table of the given capacity, reusing the entry objects
+     * @param newCap the new capacity for the map
      */
     @Override
-    public Iterable<Entry<K,V>> entrySet() {
-        ArrayList<Entry<K,V>> buffer = new ArrayList<>();
-        for (int h = 0; h < capacity; h++) if (!isAvailable(h)) buffer.add(table[h]);
-        return buffer;
+    protected void resize(int newCap) {
+        MapEntry<K,V>[] old = table;
+        capacity = newCap;
+        createTable();
+        for (MapEntry<K,V> e : old) {
+            if (e == null || e == DEFUNCT) continue;
+            int j = hashValue(e.getKey());
+            while (table[j] != null) j = (j + 1) % capacity;    // keys are distinct, so the first empty slot will do
+            table[j] = e;
+        }
+    }
+
+    /**
+     * @return an iterable collection of entries in Map, read lazily from the table
+     */
+    @Override
+    public Iterable<Entry<K,V>> entrySet() { return this::cursor; }
+
+    /**
+     * @return a new cursor positioned before the first entry
+     */
+    public Cursor cursor() { return new Cursor(); }
+
+    // Nested Cursor class
+    /**
+     * Iterator over the entries of the map that walks the table in place. Entries are returned as stored,
+     * so iterating allocates nothing, and one cursor may be rewound with reset and used again.
+     * Putting a new key or removing a key other than through the cursor makes it fail fast.
+     */
+    public class Cursor implements Iterator<Entry<K,V>> {
+        private MapEntry<K,V>[] slots = table;  // the table being walked
+        private int j = 0;                      // next slot to examine
+        private int last = -1;                  // slot of the entry last returned
+        private int expectedModCount = modCount;
+
+        /** Rewinds the cursor to before the first entry @return this cursor */
+        public Cursor reset() {
+            slots = table;
+            j = 0;
+            last = -1;
+            expectedModCount = modCount;
+            return this;
+        }
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            checkForModification();
+            while (j < slots.length && (slots[j] == null || slots[j] == DEFUNCT)) j++;
+            return j < slots.length;
+        }
+
+        /** @return next entry in the map */
+        public Entry<K,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            last = j;
+            return slots[j++];
+        }
+
+        /** Removes the entry last returned, leaving the cursor valid */
+        public void remove() {
+            checkForModification();
+            if (last < 0) throw new IllegalStateException("next has not been called");
+            slots[last] = DEFUNCT;
+            last = -1;
+            n--;
+            expectedModCount = ++modCount;
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+        }
     }
 }
@@ -0,0 +1,193 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Open addressing hash map with Robin Hood linear probing and backward-shift deletion.
+ *
+ * The table length is a power of two and a key's home slot is taken from the high bits of its hashCode
+ * multiplied by the golden ratio, so no modulo is needed. Keys, values and mixed hashes live in parallel arrays
+ * rather than in entry objects. On insertion an entry that has probed further than the resident of a slot takes
+ * that slot, keeping probe sequences short and uniform, and a lookup stops as soon as it passes a resident closer
+ * to home than itself. Removal shifts the following entries back one slot instead of leaving a DEFUNCT marker,
+ * so probe lengths do not decay under repeated put and remove. Null keys are not supported.
+ */
+public class RobinHoodHashMap<K,V> extends AbstractMap<K,V> {
+    private static final int DEFAULT_CAPACITY = 8;
+
+    // Instance variables
+    private Object[] keys;      // null marks an empty slot
+    private Object[] vals;
+    private int[] hashes;       // mixed hash of the key in each slot
+    private int shift;          // home slot of hash h is h >>> shift
+    private int mask;           // table length - 1
+    private int n = 0;          // number of entries
+    private int threshold;      // grow once n exceeds this
+
+    // Constructors
+
+    /** Creates an empty map */
+    public RobinHoodHashMap() { this(DEFAULT_CAPACITY / 2); }
+
+    /**
+     * Creates an empty map that holds the given number of entries without growing
+     * @param expected number of entries expected
+     * @throws IllegalArgumentException if expected is negative
+     */
+    public RobinHoodHashMap(int expected) throws IllegalArgumentException {
+        if (expected < 0) throw new IllegalArgumentException("Negative capacity");
+        int cap = DEFAULT_CAPACITY;
+        while (cap - cap / 4 < expected) cap <<= 1;
+        createTable(cap);
+    }
+
+    /** Allocates empty arrays of the given power of two length */
+    private void createTable(int cap) {
+        keys = new Object[cap];
+        vals = new Object[cap];
+        hashes = new int[cap];
+        mask = cap - 1;
+        shift = 32 - Integer.numberOfTrailingZeros(cap);
+        threshold = cap - cap / 4;      // load factor 3/4
+    }
+
+    /** @return number of entries in the map */
+    @Override
+    public int size() { return n; }
+
+    /**
+     * Returns the value stored at the given key
+     * @param key a key in the map
+     * @return the value stored at key, or null if key is not in the map
+     */
+    @Override
+    public V get(K key) {
+        int j = find(key);
+        return (j < 0) ? null : (V) vals[j];
+    }
+
+    /**
+     * Stores a key/value pair, replacing any value already stored at key
+     * @param key the key
+     * @param value the value to be stored at key
+     * @return the value previously stored at key, or null if there was none
+     * @throws IllegalArgumentException if key is null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        int j = find(key);
+        if (j >= 0) {
+            V old = (V) vals[j];
+            vals[j] = value;
+            return old;
+        }
+        if (n >= threshold) resize(2 * keys.length);
+        place(key, value, mix(key));
+        n++;
+        return null;
+    }
+
+    /**
+     * Removes the given key from the map
+     * @param key the key to be removed
+     * @return the value stored at the removed key, or null if key was not in the map
+     */
+    @Override
+    public V remove(K key) {
+        int j = find(key);
+        if (j < 0) return null;
+        V answer = (V) vals[j];
+        // backward shift: pull each following displaced entry one slot closer to its home
+        int next = (j + 1) & mask;
+        while (keys[next] != null && distance(next) > 0) {
+            keys[j] = keys[next];
+            vals[j] = vals[next];
+            hashes[j] = hashes[next];
+            j = next;
+            next = (next + 1) & mask;
+        }
+        keys[j] = null;
+        vals[j] = null;
+        n--;
+        return answer;
+    }
+
+    /** @return an iterable collection of the entries in the map, read lazily from the table */
+    @Override
+    public Iterable<Entry<K,V>> entrySet() { return EntryIterator::new; }
+
+    // Private utilities
+
+    /** @return a well spread hash of key @throws IllegalArgumentException if key is null */
+    private static int mix(Object key) throws IllegalArgumentException {
+        if (key == null) throw new IllegalArgumentException("Null key");
+        return key.hashCode() * 0x9E3779B9;
+    }
+
+    /** @return how many slots the entry at slot j sits past its home slot */
+    private int distance(int j) { return (j - (hashes[j] >>> shift)) & mask; }
+
+    /** @return slot holding key, or -1 if key is not in the map */
+    private int find(Object key) {
+        int h = mix(key);
+        int j = h >>> shift;
+        for (int d = 0; keys[j] != null && distance(j) >= d; d++) {
+            if (hashes[j] == h && keys[j].equals(key)) return j;
+            j = (j + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Inserts a key known to be absent, displacing entries closer to their home slots */
+    private void place(Object key, Object value, int h) {
+        int j = h >>> shift;
+        for (int d = 0; ; d++) {
+            if (keys[j] == null) {
+                keys[j] = key;
+                vals[j] = value;
+                hashes[j] = h;
+                return;
+            }
+            int resident = distance(j);
+            if (resident < d) {     // the resident is richer: swap and carry it onward
+                Object k = keys[j], v = vals[j];
+                int rh = hashes[j];
+                keys[j] = key;
+                vals[j] = value;
+                hashes[j] = h;
+                key = k;
+                value = v;
+                h = rh;
+                d = resident;
+            }
+            j = (j + 1) & mask;
+        }
+    }
+
+    /** Moves every entry into a table of the given length */
+    private void resize(int newCap) {
+        Object[] oldKeys = keys, oldVals = vals;
+        int[] oldHashes = hashes;
+        createTable(newCap);
+        for (int j = 0; j < oldKeys.length; j++)
+            if (oldKeys[j] != null) place(oldKeys[j], oldVals[j], oldHashes[j]);
+    }
+
+    // Nested EntryIterator class
+    private class EntryIterator implements Iterator<Entry<K,V>> {
+        private int j = 0;      // next slot to examine
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            while (j < keys.length && keys[j] == null) j++;
+            return j < keys.length;
+        }
+
+        /** @return next entry in the map */
+        public Entry<K,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Entry<K,V> e = new MapEntry<>((K) keys[j], (V) vals[j]);
+            j++;
+            return e;
+        }
+    }
+}
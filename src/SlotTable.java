@@ -0,0 +1,108 @@
+import java.util.Arrays;
+
+/**
+ * Growable array of slots addressed by dense integer ids.
+ * Ids of removed items are kept on a free-list and handed out again before the table grows,
+ * so the largest id in use stays close to the number of items stored.
+ */
+public class SlotTable<T> {
+    // Instance variables
+    private Object[] slots;
+    private int bound = 0;          // one more than the largest id ever handed out
+    private int[] free;             // stack of ids available for reuse
+    private int freeCount = 0;
+    private int size = 0;
+
+    // Constructors
+
+    /** Creates an empty table with room for given number of items before growing */
+    public SlotTable(int cap) {
+        slots = new Object[Math.max(cap, 1)];
+        free = new int[Math.max(cap / 4, 1)];
+    }
+
+    /** Creates an empty table with default capacity of 16 */
+    public SlotTable() { this(16); }
+
+    /** @return number of items stored */
+    public int size() { return size; }
+
+    /** @return one more than the largest id in use, so arrays of this length can be indexed by id */
+    public int bound() { return bound; }
+
+    /**
+     * Returns the item stored with given id
+     * @param id an id of the table
+     * @return the item with that id, or null if the id is not in use
+     */
+    public T get(int id) {
+        if (id < 0 || id >= bound) return null;
+        return (T) slots[id];
+    }
+
+    /** @return the id the next call to add will assign */
+    public int nextId() { return (freeCount > 0) ? free[freeCount - 1] : bound; }
+
+    /**
+     * Stores an item, reusing the most recently freed id if there is one
+     * @param item the item to be stored
+     * @return the id assigned to the item
+     */
+    public int add(T item) {
+        int id;
+        if (freeCount > 0) id = free[--freeCount];
+        else {
+            if (bound == slots.length) slots = Arrays.copyOf(slots, 2 * slots.length);
+            id = bound++;
+        }
+        slots[id] = item;
+        size++;
+        return id;
+    }
+
+    /**
+     * Stores an item under a specific unused id, for rebuilding a table saved elsewhere.
+     * Ids skipped over are not added to the free-list; restoreFreeIds must be called once every item is placed.
+     * @param id an id not currently in use
+     * @param item the item to be stored
+     * @throws IllegalArgumentException if id is negative or already in use
+     */
+    public void put(int id, T item) throws IllegalArgumentException {
+        if (id < 0 || get(id) != null) throw new IllegalArgumentException("id not available");
+        while (id >= slots.length) slots = Arrays.copyOf(slots, 2 * slots.length);
+        bound = Math.max(bound, id + 1);
+        slots[id] = item;
+        size++;
+    }
+
+    /** @return the ids awaiting reuse, the next one to be handed out last */
+    public int[] freeIds() { return Arrays.copyOf(free, freeCount); }
+
+    /**
+     * Replaces the free-list, for rebuilding a table saved elsewhere
+     * @param ids unused ids below bound(), the next one to be handed out last
+     * @throws IllegalArgumentException if an id is in use or out of range
+     */
+    public void restoreFreeIds(int[] ids) throws IllegalArgumentException {
+        for (int id : ids)
+            if (id < 0 || id >= bound || slots[id] != null) throw new IllegalArgumentException("id " + id + " cannot be free");
+        free = Arrays.copyOf(ids, Math.max(ids.length, 1));
+        freeCount = ids.length;
+    }
+
+    /**
+     * Clears the slot with given id and makes the id available for reuse
+     * @param id an id in use
+     * @return the item that was stored there
+     * @throws IllegalArgumentException if id is not in use
+     */
+    public T remove(int id) throws IllegalArgumentException {
+        T answer = get(id);
+        if (answer == null) throw new IllegalArgumentException("id not in use");
+        slots[id] = null;           // help garbage collection
+        if (freeCount == free.length) free = Arrays.copyOf(free, 2 * free.length);
+        free[freeCount++] = id;
+        size--;
+        return answer;
+    }
+}
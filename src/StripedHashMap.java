@@ -0,0 +1,252 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe hash map whose keys are split over independently locked stripes, for tables shared by parallel
+ * algorithms such as id to vertex indexes or memoized distances.
+ *
+ * A key's stripe is chosen by the high bits of its mixed hash and its bucket within the stripe by the low bits.
+ * Writers lock only their stripe. Readers take no lock: every stripe publishes its bucket array through a volatile
+ * field, chain links are final, and values are volatile, so a reader sees either the state before a write or after it.
+ * Removal copies the part of a chain ahead of the removed node instead of unlinking it in place. Each stripe
+ * doubles its own table under its own lock when it gets too full, so a resize never blocks the other stripes.
+ * Null keys and values are not supported. size and iteration are weakly consistent while writers are active.
+ */
+public class StripedHashMap<K,V> extends AbstractMap<K,V> {
+    /** Default number of stripes, enough to keep 64 writers apart most of the time */
+    public static final int DEFAULT_STRIPES = 64;
+    private static final int MIN_STRIPE_CAPACITY = 4;
+
+    // Nested Node class
+    private static final class Node<K,V> implements Entry<K,V> {
+        private final K key;
+        private final int hash;
+        private volatile V value;
+        private final Node<K,V> next;
+
+        Node(K key, int hash, V value, Node<K,V> next) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+            this.next = next;
+        }
+
+        public K getKey() { return key; }
+        public V getValue() { return value; }
+    }
+
+    // Nested Stripe class
+    private static final class Stripe<K,V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile Node<K,V>[] table;
+        private volatile int count = 0;         // written only under the lock
+
+        Stripe(int capacity) { table = (Node<K,V>[]) new Node[capacity]; }
+
+        /** @return the node holding key, or null; called without the lock */
+        Node<K,V> find(Object key, int hash) {
+            Node<K,V>[] tab = table;
+            for (Node<K,V> e = tab[hash & (tab.length - 1)]; e != null; e = e.next)
+                if (e.hash == hash && e.key.equals(key)) return e;
+            return null;
+        }
+
+        /** @return value of e, read again under the lock if a racing reader saw it before it was initialized */
+        V valueOf(Node<K,V> e) {
+            V v = e.value;
+            if (v != null) return v;
+            lock.lock();
+            try {
+                return e.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        V put(K key, int hash, V value, boolean onlyIfAbsent) {
+            lock.lock();
+            try {
+                Node<K,V> e = find(key, hash);
+                if (e != null) {
+                    V old = e.value;
+                    if (!onlyIfAbsent) e.value = value;
+                    return old;
+                }
+                Node<K,V>[] tab = table;
+                if (count >= tab.length - tab.length / 4) tab = rehash(tab);   // load factor 3/4
+                int b = hash & (tab.length - 1);
+                tab[b] = new Node<>(key, hash, value, tab[b]);
+                table = tab;                    // volatile write publishes the new node
+                count = count + 1;
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        V remove(Object key, int hash) {
+            lock.lock();
+            try {
+                Node<K,V>[] tab = table;
+                int b = hash & (tab.length - 1);
+                Node<K,V> first = tab[b], e = first;
+                while (e != null && !(e.hash == hash && e.key.equals(key))) e = e.next;
+                if (e == null) return null;
+                // the nodes after e are shared; the ones before it are copied ahead of them
+                Node<K,V> rest = e.next;
+                for (Node<K,V> p = first; p != e; p = p.next) rest = new Node<>(p.key, p.hash, p.value, rest);
+                tab[b] = rest;
+                table = tab;
+                count = count - 1;
+                return e.value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** @return a table twice as large holding copies of every node; readers keep using the old one until it is published */
+        private Node<K,V>[] rehash(Node<K,V>[] old) {
+            Node<K,V>[] tab = (Node<K,V>[]) new Node[2 * old.length];
+            int mask = tab.length - 1;
+            for (Node<K,V> head : old)
+                for (Node<K,V> e = head; e != null; e = e.next)
+                    tab[e.hash & mask] = new Node<>(e.key, e.hash, e.value, tab[e.hash & mask]);
+            return tab;
+        }
+    }
+
+    // Instance variables
+    private final Stripe<K,V>[] stripes;
+    private final int stripeShift;              // stripe of hash h is h >>> stripeShift
+
+    // Constructors
+
+    /** Creates an empty map with DEFAULT_STRIPES stripes */
+    public StripedHashMap() { this(DEFAULT_STRIPES, 0); }
+
+    /**
+     * Creates an empty map
+     * @param concurrency the number of threads expected to write at once; rounded up to a power of two stripes
+     * @param expected number of entries expected, to size the stripes
+     * @throws IllegalArgumentException if concurrency is not positive or expected is negative
+     */
+    public StripedHashMap(int concurrency, int expected) throws IllegalArgumentException {
+        if (concurrency <= 0 || concurrency > 1 << 16) throw new IllegalArgumentException("Invalid concurrency");
+        if (expected < 0) throw new IllegalArgumentException("Negative capacity");
+        int count = Integer.highestOneBit(concurrency - 1) << 1;
+        if (concurrency == 1) count = 1;
+        stripes = (Stripe<K,V>[]) new Stripe[count];
+        stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+        int perStripe = MIN_STRIPE_CAPACITY;
+        while (perStripe - perStripe / 4 < expected / count + 1) perStripe <<= 1;
+        for (int s = 0; s < count; s++) stripes[s] = new Stripe<>(perStripe);
+    }
+
+    /** @return number of entries in the map, summed stripe by stripe */
+    @Override
+    public int size() {
+        int n = 0;
+        for (Stripe<K,V> s : stripes) n += s.count;
+        return n;
+    }
+
+    /**
+     * Returns the value stored at the given key, without locking
+     * @param key a key in the map
+     * @return the value stored at key, or null if key is not in the map
+     */
+    @Override
+    public V get(K key) {
+        if (key == null) return null;
+        int h = mix(key);
+        Stripe<K,V> stripe = stripeFor(h);
+        Node<K,V> e = stripe.find(key, h);
+        return (e == null) ? null : stripe.valueOf(e);
+    }
+
+    /**
+     * Stores a key/value pair, replacing any value already stored at key
+     * @param key the key
+     * @param value the value to be stored at key
+     * @return the value previously stored at key, or null if there was none
+     * @throws IllegalArgumentException if key or value is null
+     */
+    @Override
+    public V put(K key, V value) throws IllegalArgumentException {
+        checkEntry(key, value);
+        int h = mix(key);
+        return stripeFor(h).put(key, h, value, false);
+    }
+
+    /**
+     * Stores a key/value pair unless key is already in the map, atomically
+     * @param key the key
+     * @param value the value to be stored at key if it is absent
+     * @return the value already stored at key, or null if value was stored
+     * @throws IllegalArgumentException if key or value is null
+     */
+    public V putIfAbsent(K key, V value) throws IllegalArgumentException {
+        checkEntry(key, value);
+        int h = mix(key);
+        return stripeFor(h).put(key, h, value, true);
+    }
+
+    /**
+     * Removes the given key from the map
+     * @param key the key to be removed
+     * @return the value stored at the removed key, or null if key was not in the map
+     */
+    @Override
+    public V remove(K key) {
+        if (key == null) return null;
+        int h = mix(key);
+        return stripeFor(h).remove(key, h);
+    }
+
+    /** @return an iterable collection of the entries in the map, walked stripe by stripe without locking */
+    @Override
+    public Iterable<Entry<K,V>> entrySet() { return EntryIterator::new; }
+
+    // Private utilities
+
+    private static void checkEntry(Object key, Object value) throws IllegalArgumentException {
+        if (key == null || value == null) throw new IllegalArgumentException("Null key or value");
+    }
+
+    private static int mix(Object key) {
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private Stripe<K,V> stripeFor(int h) {
+        return stripes[stripeShift == 32 ? 0 : h >>> stripeShift];
+    }
+
+    // Nested EntryIterator class
+    private class EntryIterator implements Iterator<Entry<K,V>> {
+        private int stripe = 0, bucket = 0;     // next bucket to examine
+        private Node<K,V>[] table = stripes[0].table;
+        private Node<K,V> next = null;
+
+        /** @return true if there are more entries in the map */
+        public boolean hasNext() {
+            while (next == null) {
+                if (bucket == table.length) {
+                    if (++stripe == stripes.length) return false;
+                    table = stripes[stripe].table;
+                    bucket = 0;
+                } else next = table[bucket++];
+            }
+            return true;
+        }
+
+        /** @return next entry in the map */
+        public Entry<K,V> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            Node<K,V> e = next;
+            next = e.next;
+            return e;
+        }
+    }
+}
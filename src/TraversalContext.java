@@ -0,0 +1,131 @@
+import java.util.Arrays;
+
+/**
+ * Per-run scratch state for a graph traversal, indexed by vertex id.
+ *
+ * Keeping this state out of the graph lets any number of traversals run over one graph at once, each on its own thread.
+ * Contexts are pooled per thread, so repeated runs reuse their arrays instead of allocating them,
+ * and marks are epoch stamped: starting a run only bumps the epoch rather than clearing every mark.
+ * The int arrays are not cleared either; a value is meaningful only for a vertex marked during the current run.
+ *
+ * Typical use:
+ * <pre>
+ *     try (TraversalContext ctx = TraversalContext.acquire(g.vertexIdBound())) {
+ *         int[] disc = ctx.ints(0);
+ *         ...
+ *     }
+ * </pre>
+ */
+public class TraversalContext implements AutoCloseable {
+    private static final ThreadLocal<TraversalContext> POOL = ThreadLocal.withInitial(TraversalContext::new);
+
+    // Instance variables
+    private int[] stamps = new int[0];          // stamps[v] == epoch if v is marked in this run
+    private int epoch = 0;
+    private int[][] ints = new int[0][];
+    private IndexedDaryHeap heap = null;
+    private IntRingQueue frontier = null;
+    private IntPriorityQueue queue = null;      // monotone queue made for edge weights up to queueWeight
+    private int queueWeight;
+    private int bound = 0;
+    private boolean inUse = false;
+
+    private TraversalContext() { }
+
+    /**
+     * Starts a run over vertex ids below bound, taking this thread's pooled context if it is free.
+     * A traversal started while another is in progress on the same thread gets a context of its own.
+     * @param bound one more than the largest vertex id the run will touch
+     * @return a context with no vertex marked, to be closed when the run ends
+     */
+    public static TraversalContext acquire(int bound) {
+        TraversalContext ctx = POOL.get();
+        if (ctx.inUse) ctx = new TraversalContext();
+        return ctx.begin(bound);
+    }
+
+    /**
+     * Creates a context outside the per-thread pools, for an owner that keeps it across runs and drops it when done,
+     * so that its arrays do not stay reachable from the thread that last used it
+     * @return a new context, each of whose runs is started by begin
+     */
+    public static TraversalContext detached() { return new TraversalContext(); }
+
+    /**
+     * Starts a new run on this context, growing the marks as needed and unmarking every vertex
+     * @param bound one more than the largest vertex id the run will touch
+     * @return this context, to be closed when the run ends
+     */
+    public TraversalContext begin(int bound) {
+        inUse = true;
+        this.bound = bound;
+        if (stamps.length < bound) stamps = new int[Math.max(bound, 2 * stamps.length)];
+        if (++epoch == 0) {                     // wrapped around, old stamps could match again
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        return this;
+    }
+
+    /** @return the bound the current run was started with */
+    public int bound() { return bound; }
+
+    /** @return true if vertex id v has been marked during this run */
+    public boolean isMarked(int v) { return stamps[v] == epoch; }
+
+    /** Marks vertex id v for the rest of this run */
+    public void mark(int v) { stamps[v] = epoch; }
+
+    /**
+     * Returns a scratch array of at least bound() ints. Its contents are left over from earlier runs,
+     * so each entry must be written before it is read, typically when its vertex is marked.
+     * @param k which scratch array, starting at 0
+     * @return scratch array number k
+     */
+    public int[] ints(int k) {
+        if (k >= ints.length) ints = Arrays.copyOf(ints, k + 1);
+        if (ints[k] == null || ints[k].length < bound) ints[k] = new int[Math.max(bound, stamps.length)];
+        return ints[k];
+    }
+
+    /**
+     * Returns an empty scratch queue with room for bound() ids, such as the frontier of a breadth-first search,
+     * which therefore never grows during the run
+     * @return this context's queue, cleared
+     */
+    public IntRingQueue frontier() {
+        if (frontier == null || frontier.capacity() < bound) frontier = new IntRingQueue(Math.max(bound, stamps.length));
+        else frontier.clear();
+        return frontier;
+    }
+
+    /**
+     * Returns an empty scratch heap for ids below bound(), such as the queue of Dijkstra's algorithm
+     * @return this context's heap, cleared
+     */
+    public IndexedDaryHeap heap() {
+        if (heap == null) heap = new IndexedDaryHeap(Math.max(bound, stamps.length));
+        else heap.ensureCapacity(bound);
+        heap.clear();
+        return heap;
+    }
+
+    /**
+     * Returns an empty scratch queue for ids below bound() suited to Dijkstra's algorithm over edges of weight
+     * at most maxWeight, as chosen by IntBucketQueue.forMaxWeight
+     * @param maxWeight the largest weight of any edge
+     * @return this context's queue for that weight, cleared
+     * @throws IllegalArgumentException if maxWeight is negative
+     */
+    public IntPriorityQueue queueFor(int maxWeight) throws IllegalArgumentException {
+        if (queue == null || queueWeight != maxWeight) {
+            queue = IntBucketQueue.forMaxWeight(Math.max(bound, stamps.length), maxWeight);
+            queueWeight = maxWeight;
+        } else queue.ensureCapacity(bound);
+        queue.clear();
+        return queue;
+    }
+
+    /** Ends the run, returning the context to its thread's pool */
+    public void close() { inUse = false; }
+}
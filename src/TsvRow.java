@@ -0,0 +1,101 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A reusable view of one tab separated line inside a byte buffer.
+ * Field boundaries are recorded as buffer indices, so numeric fields are read straight
+ * from the bytes and Strings are only created for fields that are explicitly asked for.
+ */
+public class TsvRow {
+    // Instance variables
+    private final ByteBuffer buf;
+    private int[] starts = new int[16], ends = new int[16];     // bounds of each field, end exclusive
+    private int count = 0;
+
+    /** Creates a row view over the given buffer */
+    public TsvRow(ByteBuffer buf) { this.buf = buf; }
+
+    /**
+     * Splits the line beginning at a given index into fields
+     * @param from index of the first byte of the line
+     * @param limit index one past the last byte that may be read
+     * @return index of the first byte of the following line
+     */
+    public int parse(int from, int limit) {
+        count = 0;
+        int fieldStart = from, j = from;
+        while (j < limit) {
+            byte b = buf.get(j);
+            if (b == '\n') break;
+            if (b == '\t') {
+                addField(fieldStart, j);
+                fieldStart = j + 1;
+            }
+            j++;
+        }
+        int lineEnd = (j > fieldStart && buf.get(j - 1) == '\r') ? j - 1 : j;   // tolerate CRLF line endings
+        if (lineEnd > from || count > 0) addField(fieldStart, Math.max(fieldStart, lineEnd));
+        return j < limit ? j + 1 : limit;
+    }
+
+    /** Records bounds of the next field, growing the bound arrays as needed */
+    private void addField(int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, 2 * count);
+            ends = Arrays.copyOf(ends, 2 * count);
+        }
+        starts[count] = start;
+        ends[count++] = end;
+    }
+
+    /** @return number of fields in the line, 0 for a blank line */
+    public int fieldCount() { return count; }
+
+    /** @return true if field i is missing or has no characters */
+    public boolean isEmpty(int i) { return i >= count || starts[i] == ends[i]; }
+
+    /**
+     * Reads field i as a decimal long without creating a String
+     * @param i index of the field
+     * @return the value of the field
+     * @throws NumberFormatException if the field is empty or not a decimal integer
+     */
+    public long longField(int i) throws NumberFormatException {
+        if (isEmpty(i)) throw new NumberFormatException("empty field " + i);
+        int j = starts[i];
+        boolean negative = buf.get(j) == '-';
+        if (negative && ++j == ends[i]) throw new NumberFormatException("bad number in field " + i);
+        long value = 0;
+        for (; j < ends[i]; j++) {
+            int digit = buf.get(j) - '0';
+            if (digit < 0 || digit > 9) throw new NumberFormatException("bad number in field " + i);
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Reads field i as a decimal int without creating a String
+     * @param i index of the field
+     * @return the value of the field
+     * @throws NumberFormatException if the field is empty, not a decimal integer or out of int range
+     */
+    public int intField(int i) throws NumberFormatException {
+        long value = longField(i);
+        if (value != (int) value) throw new NumberFormatException("field " + i + " out of int range");
+        return (int) value;
+    }
+
+    /**
+     * Decodes field i as UTF-8 text
+     * @param i index of the field
+     * @return the text of the field, empty if the field is missing
+     */
+    public String stringField(int i) {
+        if (isEmpty(i)) return "";
+        byte[] bytes = new byte[ends[i] - starts[i]];
+        for (int j = 0; j < bytes.length; j++) bytes[j] = buf.get(starts[i] + j);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
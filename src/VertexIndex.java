@@ -0,0 +1,112 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Secondary index from a key derived from each vertex's element to the vertices having that key.
+ * Kept up to date by the graph as vertices are inserted and removed; vertices whose key is null are not indexed.
+ * Vertices sharing a key are listed in the order they were indexed until one of them is removed, which moves the
+ * last vertex of the list into its place; each vertex's place in its list is kept by vertex id for this.
+ */
+public abstract class VertexIndex<V, K> {
+    // Instance variables
+    private final Function<V, K> keyOf;
+    private final ToIntFunction<Vertex<V>> idOf;
+    private int[] slotOf = new int[16];     // index of each indexed vertex in its list, by vertex id
+
+    /** Creates an index over the keys extracted by keyOf, for a graph whose vertex ids are given by idOf */
+    protected VertexIndex(Function<V, K> keyOf, ToIntFunction<Vertex<V>> idOf) {
+        this.keyOf = keyOf;
+        this.idOf = idOf;
+    }
+
+    /** @return the list of vertices with given key, creating it if create is true, otherwise possibly null */
+    protected abstract ArrayList<Vertex<V>> bucket(K key, boolean create);
+
+    /** Discards the empty list of vertices for given key */
+    protected abstract void discard(K key);
+
+    /**
+     * Returns the vertices whose key equals the given key in expected constant time plus the size of the answer
+     * @param key the key searched for
+     * @return a copy of the list of matching vertices, empty if there are none, unaffected by later changes to the graph
+     */
+    public List<Vertex<V>> lookup(K key) {
+        ArrayList<Vertex<V>> list = (key == null) ? null : bucket(key, false);
+        return (list == null) ? Collections.emptyList() : new ArrayList<>(list);
+    }
+
+    /** Indexes a newly inserted vertex */
+    void add(Vertex<V> v) {
+        K key = keyOf.apply(v.getElement());
+        if (key == null) return;
+        ArrayList<Vertex<V>> list = bucket(key, true);
+        int id = idOf.applyAsInt(v);
+        if (id >= slotOf.length) slotOf = Arrays.copyOf(slotOf, Math.max(2 * slotOf.length, id + 1));
+        slotOf[id] = list.size();
+        list.add(v);
+    }
+
+    /** Removes a vertex that is being removed from the graph, in constant time */
+    void remove(Vertex<V> v) {
+        K key = keyOf.apply(v.getElement());
+        if (key == null) return;
+        ArrayList<Vertex<V>> list = bucket(key, false);
+        int j = slotOf[idOf.applyAsInt(v)], last = list.size() - 1;
+        Vertex<V> moved = list.remove(last);
+        if (j < last) {
+            list.set(j, moved);
+            slotOf[idOf.applyAsInt(moved)] = j;
+        }
+        if (list.isEmpty()) discard(key);
+    }
+
+    /** Hash index supporting exact lookups */
+    public static class HashIndex<V, K> extends VertexIndex<V, K> {
+        private final Map<K, ArrayList<Vertex<V>>> buckets = new ProbeHashMap<>();
+
+        public HashIndex(Function<V, K> keyOf, ToIntFunction<Vertex<V>> idOf) { super(keyOf, idOf); }
+
+        protected ArrayList<Vertex<V>> bucket(K key, boolean create) {
+            ArrayList<Vertex<V>> list = buckets.get(key);
+            if (list == null && create) buckets.put(key, list = new ArrayList<>(1));
+            return list;
+        }
+
+        protected void discard(K key) { buckets.remove(key); }
+    }
+
+    /** Ordered index over String keys, supporting prefix lookups as well as exact ones */
+    public static class PrefixIndex<V> extends VertexIndex<V, String> {
+        private final TreeMap<String, ArrayList<Vertex<V>>> buckets = new TreeMap<>();
+
+        public PrefixIndex(Function<V, String> keyOf, ToIntFunction<Vertex<V>> idOf) { super(keyOf, idOf); }
+
+        protected ArrayList<Vertex<V>> bucket(String key, boolean create) {
+            ArrayList<Vertex<V>> list = buckets.get(key);
+            if (list == null && create) buckets.put(key, list = new ArrayList<>(1));
+            return list;
+        }
+
+        protected void discard(String key) { buckets.remove(key); }
+
+        /**
+         * Returns the vertices whose key starts with the given prefix, in key order,
+         * in O(log k + r) time for k distinct keys and r matching vertices
+         * @param prefix the prefix searched for
+         * @return a list of the matching vertices, empty if there are none
+         */
+        public List<Vertex<V>> lookupPrefix(String prefix) {
+            ArrayList<Vertex<V>> answer = new ArrayList<>();
+            for (java.util.Map.Entry<String, ArrayList<Vertex<V>>> entry : buckets.tailMap(prefix).entrySet()) {
+                if (!entry.getKey().startsWith(prefix)) break;
+                answer.addAll(entry.getValue());
+            }
+            return answer;
+        }
+    }
+}